@@ -0,0 +1,30 @@
+package com.tianhy.mvcframework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @Desc: 声明切面：加在同时标注了 @MyService、并实现了 MethodInterceptor / MethodBeforeAdvice / AfterReturningAdvice 的类上
+ * <p>
+ * annotations 和 packages 至少指定一个，都指定时两个条件都要满足：
+ * <ul>
+ * <li>annotations：方法或方法所在的类上有其中任意一个注解</li>
+ * <li>packages：目标类所在的包，com.tianhy.demo 匹配该包及其子包，* 匹配一段包名</li>
+ * </ul>
+ * 切面同时作用于controller的handler方法和 @MyService bean 的接口方法，切面bean自己不会被增强。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyAspect {
+
+    Class<? extends Annotation>[] annotations() default {};
+
+    String[] packages() default {};
+
+    /**
+     * 越小越先执行(在调用链的外层)
+     */
+    int order() default 0;
+}
@@ -7,7 +7,7 @@ import java.lang.annotation.*;
  * @Author: thy
  * @CreateTime: 2019/3/27
  **/
-@Target({ElementType.FIELD})
+@Target({ElementType.FIELD, ElementType.CONSTRUCTOR})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface MyAutowired {
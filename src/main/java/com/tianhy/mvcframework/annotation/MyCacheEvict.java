@@ -0,0 +1,24 @@
+package com.tianhy.mvcframework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @Desc: 方法正常返回后，从指定的缓存中移除与本方法参数相同的键，或清空整个缓存
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyCacheEvict {
+
+    /**
+     * 缓存名
+     */
+    String[] value();
+
+    /**
+     * 是否清空整个缓存
+     */
+    boolean allEntries() default false;
+}
@@ -0,0 +1,31 @@
+package com.tianhy.mvcframework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @Desc: 缓存@MyService方法的返回值，键为方法参数(按值比较)
+ * <p>
+ * 容器为这样的bean生成JDK动态代理，只能通过接口注入和调用；同名的方法共用一个缓存，按第一个声明的配置创建。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyCacheable {
+
+    /**
+     * 缓存名，默认为 类名.方法名
+     */
+    String value() default "";
+
+    /**
+     * 写入后多少毫秒过期，小于等于0不过期
+     */
+    long ttl() default 60000;
+
+    /**
+     * 最多缓存多少条
+     */
+    int maxEntries() default 1000;
+}
@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @Desc: 绑定路由模板中的路径变量，如 /users/{id} 中的 id；value 为空时取形参名(需要 -parameters 编译)
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyPathVariable {
+    String value() default "";
+
+}
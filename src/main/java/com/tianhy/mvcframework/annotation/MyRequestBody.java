@@ -0,0 +1,25 @@
+package com.tianhy.mvcframework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @Desc: 把请求体(JSON 或表单)绑定到形参；形参是 Iterator/Stream 时，JSON 数组按元素逐个解析
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyRequestBody {
+
+    /**
+     * 请求体为空时是否报错
+     */
+    boolean required() default true;
+
+    /**
+     * 请求体最大字节数，小于 0 时使用配置 request.body.maxSize
+     */
+    long maxSize() default -1;
+
+}
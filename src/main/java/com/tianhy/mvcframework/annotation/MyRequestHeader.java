@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @Desc: 绑定请求头，形参是数组或集合时取同名请求头的所有值
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyRequestHeader {
+    String value() default "";
+
+}
@@ -0,0 +1,34 @@
+package com.tianhy.mvcframework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * @Desc: 缓存handler方法的响应(只缓存GET请求)
+ * <p>
+ * 缓存键为 Accept 头加上 @MyRequestParam/@MyPathVariable/@MyRequestHeader 参数转换后的值，方法的结果只能取决于这些参数；
+ * 方法直接写 HttpServletResponse 也可以，写出的状态、头和内容会被捕获后缓存。
+ * 形参不能是 HttpServletRequest / HttpSession、@MyRequestBody 或 ArgumentResolver 取值的参数，它们的值不在键里，初始化时报错。
+ * 返回 CompletionStage/Callable 或流式结果的方法不能缓存。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MyResponseCache {
+
+    /**
+     * 写入后多少毫秒过期，小于等于0不过期
+     */
+    long ttl() default 60000;
+
+    /**
+     * 最多缓存多少个响应
+     */
+    int maxEntries() default 1000;
+
+    /**
+     * 缓存的响应内容总字节数上限，小于等于0不限制
+     */
+    long maxBytes() default 16 * 1024 * 1024;
+}
@@ -13,4 +13,14 @@ import java.lang.annotation.*;
 public @interface MyService {
     String value() default "";
 
+    /**
+     * 作用域：singleton(默认)、prototype、request
+     */
+    String scope() default "singleton";
+
+    /**
+     * 单例是否延迟到第一次获取时才创建
+     */
+    boolean lazy() default false;
+
 }
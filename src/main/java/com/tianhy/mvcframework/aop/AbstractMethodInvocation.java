@@ -0,0 +1,45 @@
+package com.tianhy.mvcframework.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * @Desc: 按下标依次执行拦截器数组，走到末尾时调用 invokeJoinpoint() 执行目标方法
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public abstract class AbstractMethodInvocation implements MethodInvocation {
+
+    private final Method method;
+    private final Object[] arguments;
+    private final MethodInterceptor[] interceptors;
+    private int index;
+
+    protected AbstractMethodInvocation(Method method, Object[] arguments, MethodInterceptor[] interceptors) {
+        this.method = method;
+        this.arguments = arguments;
+        this.interceptors = interceptors;
+    }
+
+    @Override
+    public Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        if (index == interceptors.length) {
+            return invokeJoinpoint();
+        }
+        return interceptors[index++].invoke(this);
+    }
+
+    /**
+     * 调用目标方法，目标方法抛出的异常原样抛出(不包装成 InvocationTargetException)
+     */
+    protected abstract Object invokeJoinpoint() throws Throwable;
+}
@@ -0,0 +1,136 @@
+package com.tianhy.mvcframework.aop;
+
+import com.tianhy.mvcframework.annotation.MyAspect;
+import com.tianhy.mvcframework.beans.BeansException;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * @Desc: 一个 @MyAspect 切面：匹配条件 + 适配成 MethodInterceptor 的增强
+ * <p>
+ * 切面bean通过 adviceSource 在第一次匹配成功时才获取，没有匹配到任何方法的切面不会被创建。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class Advisor {
+
+    private final String beanName;
+    private final Class<?> aspectClass;
+    private final Class<? extends Annotation>[] annotations;
+    private final Pattern[] packages;
+    private final int order;
+    private final Supplier<Object> adviceSource;
+    private volatile MethodInterceptor interceptor;
+
+    public Advisor(String beanName, Class<?> aspectClass, Supplier<Object> adviceSource) {
+        MyAspect aspect = aspectClass.getAnnotation(MyAspect.class);
+        if (aspect.annotations().length == 0 && aspect.packages().length == 0) {
+            throw new BeansException("@MyAspect on " + aspectClass.getName() + " must specify annotations or packages");
+        }
+        if (!MethodInterceptor.class.isAssignableFrom(aspectClass) && !MethodBeforeAdvice.class.isAssignableFrom(aspectClass)
+                && !AfterReturningAdvice.class.isAssignableFrom(aspectClass)) {
+            throw new BeansException("@MyAspect " + aspectClass.getName()
+                    + " must implement MethodInterceptor, MethodBeforeAdvice or AfterReturningAdvice");
+        }
+        this.beanName = beanName;
+        this.aspectClass = aspectClass;
+        this.annotations = aspect.annotations();
+        this.packages = new Pattern[aspect.packages().length];
+        for (int i = 0; i < packages.length; i++) {
+            packages[i] = compilePackagePattern(aspect.packages()[i]);
+        }
+        this.order = aspect.order();
+        this.adviceSource = adviceSource;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * @param method      目标类上的方法
+     * @param targetClass 目标类
+     */
+    public boolean matches(Method method, Class<?> targetClass) {
+        if (targetClass == aspectClass || method.getDeclaringClass() == Object.class) {
+            return false;
+        }
+        return matchesAnnotations(method, targetClass) && matchesPackage(targetClass);
+    }
+
+    public MethodInterceptor getInterceptor() {
+        MethodInterceptor result = interceptor;
+        if (result == null) {
+            result = adapt(adviceSource.get());
+            interceptor = result;
+        }
+        return result;
+    }
+
+    private boolean matchesAnnotations(Method method, Class<?> targetClass) {
+        if (annotations.length == 0) {
+            return true;
+        }
+        for (Class<? extends Annotation> annotation : annotations) {
+            if (method.isAnnotationPresent(annotation) || targetClass.isAnnotationPresent(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesPackage(Class<?> targetClass) {
+        if (packages.length == 0) {
+            return true;
+        }
+        String packageName = targetClass.getPackage() != null ? targetClass.getPackage().getName() : "";
+        for (Pattern pattern : packages) {
+            if (pattern.matcher(packageName).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 前置、后置增强统一适配成环绕增强，调用链里只有一种类型
+     */
+    private static MethodInterceptor adapt(Object advice) {
+        if (advice instanceof MethodInterceptor) {
+            return (MethodInterceptor) advice;
+        }
+        MethodBeforeAdvice before = advice instanceof MethodBeforeAdvice ? (MethodBeforeAdvice) advice : null;
+        AfterReturningAdvice after = advice instanceof AfterReturningAdvice ? (AfterReturningAdvice) advice : null;
+        return invocation -> {
+            if (before != null) {
+                before.before(invocation.getMethod(), invocation.getArguments(), invocation.getThis());
+            }
+            Object result = invocation.proceed();
+            if (after != null) {
+                after.afterReturning(result, invocation.getMethod(), invocation.getArguments(), invocation.getThis());
+            }
+            return result;
+        };
+    }
+
+    /**
+     * com.tianhy.demo 匹配该包及子包，* 匹配一段包名
+     */
+    private static Pattern compilePackagePattern(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (String segment : pattern.trim().split("\\.")) {
+            if (regex.length() > 0) {
+                regex.append("\\.");
+            }
+            regex.append("*".equals(segment) ? "[^.]+" : Pattern.quote(segment));
+        }
+        return Pattern.compile(regex + "(\\..+)?");
+    }
+}
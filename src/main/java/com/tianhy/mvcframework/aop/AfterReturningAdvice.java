@@ -0,0 +1,14 @@
+package com.tianhy.mvcframework.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * @Desc: 后置增强(post-handle)，目标方法正常返回后执行
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@FunctionalInterface
+public interface AfterReturningAdvice {
+
+    void afterReturning(Object returnValue, Method method, Object[] args, Object target) throws Exception;
+}
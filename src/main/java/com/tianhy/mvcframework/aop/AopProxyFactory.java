@@ -0,0 +1,118 @@
+package com.tianhy.mvcframework.aop;
+
+import com.tianhy.mvcframework.beans.BeansException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * @Desc: 为需要拦截的bean生成JDK动态代理
+ * <p>
+ * 接口方法 -> 拦截器数组 在创建代理时算好；没有任何方法需要拦截时不生成代理，原样返回bean。
+ * 代理上没有拦截器的方法直接反射调用目标对象。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class AopProxyFactory {
+
+    private AopProxyFactory() {
+    }
+
+    /**
+     * @param chainResolver 目标类上的方法 -> 拦截器数组(没有时返回空数组)
+     * @return 需要拦截时返回代理，否则返回 bean 本身
+     */
+    public static Object wrapIfNecessary(String beanName, Object bean, Function<Method, MethodInterceptor[]> chainResolver) {
+        Class<?> targetClass = bean.getClass();
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> c = targetClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            interfaces.addAll(Arrays.asList(c.getInterfaces()));
+        }
+
+        Map<Method, Chain> chains = new HashMap<>();
+        for (Class<?> type : interfaces) {
+            for (Method interfaceMethod : type.getMethods()) {
+                Method method;
+                try {
+                    method = targetClass.getMethod(interfaceMethod.getName(), interfaceMethod.getParameterTypes());
+                } catch (NoSuchMethodException e) {
+                    continue;
+                }
+                MethodInterceptor[] interceptors = chainResolver.apply(method);
+                if (interceptors.length > 0) {
+                    chains.put(interfaceMethod, new Chain(method, interceptors));
+                }
+            }
+        }
+        if (chains.isEmpty()) {
+            //接口方法都不需要拦截；类上有需要拦截的方法却没有接口时无法代理
+            for (Method method : targetClass.getMethods()) {
+                if (method.getDeclaringClass() != Object.class && chainResolver.apply(method).length > 0) {
+                    throw new BeansException("Bean " + beanName + " needs interception on " + method
+                            + " but the method is not declared by any interface, it can not be proxied");
+                }
+            }
+            return bean;
+        }
+        return Proxy.newProxyInstance(targetClass.getClassLoader(), interfaces.toArray(new Class<?>[0]),
+                new InterceptingInvocationHandler(bean, chains));
+    }
+
+    private static final class Chain {
+        private final Method targetMethod;
+        private final MethodInterceptor[] interceptors;
+
+        private Chain(Method targetMethod, MethodInterceptor[] interceptors) {
+            this.targetMethod = targetMethod;
+            this.interceptors = interceptors;
+        }
+    }
+
+    private static final class InterceptingInvocationHandler implements InvocationHandler {
+        private final Object target;
+        private final Map<Method, Chain> chains;
+
+        private InterceptingInvocationHandler(Object target, Map<Method, Chain> chains) {
+            this.target = target;
+            this.chains = chains;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Chain chain = chains.get(method);
+            if (chain == null) {
+                if (method.getDeclaringClass() == Object.class && "equals".equals(method.getName())) {
+                    return proxy == args[0];
+                }
+                return invokeTarget(target, method, args);
+            }
+            return new AbstractMethodInvocation(chain.targetMethod, args == null ? new Object[0] : args, chain.interceptors) {
+                @Override
+                public Object getThis() {
+                    return target;
+                }
+
+                @Override
+                protected Object invokeJoinpoint() throws Throwable {
+                    return invokeTarget(target, method, getArguments());
+                }
+            }.proceed();
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
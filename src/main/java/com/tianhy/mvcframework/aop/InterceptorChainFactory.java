@@ -0,0 +1,63 @@
+package com.tianhy.mvcframework.aop;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @Desc: 初始化时为每个方法算出扁平化的拦截器数组
+ * <p>
+ * 切面按 order 排序，匹配只在初始化时做一次；没有任何匹配的方法返回空数组，调用方据此决定不做任何包装。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class InterceptorChainFactory {
+
+    public static final MethodInterceptor[] EMPTY = new MethodInterceptor[0];
+
+    private final List<Advisor> advisors = new ArrayList<>();
+
+    public void addAdvisor(Advisor advisor) {
+        advisors.add(advisor);
+        advisors.sort(Comparator.comparingInt(Advisor::getOrder));
+    }
+
+    public boolean isEmpty() {
+        return advisors.isEmpty();
+    }
+
+    public List<String> getAdvisorBeanNames() {
+        List<String> names = new ArrayList<>();
+        for (Advisor advisor : advisors) {
+            names.add(advisor.getBeanName());
+        }
+        return names;
+    }
+
+    public boolean isAdvisorBean(String beanName) {
+        for (Advisor advisor : advisors) {
+            if (advisor.getBeanName().equals(beanName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param method      目标类上的方法
+     * @param targetClass 目标类
+     */
+    public MethodInterceptor[] getInterceptors(Method method, Class<?> targetClass) {
+        List<MethodInterceptor> chain = null;
+        for (Advisor advisor : advisors) {
+            if (advisor.matches(method, targetClass)) {
+                if (chain == null) {
+                    chain = new ArrayList<>();
+                }
+                chain.add(advisor.getInterceptor());
+            }
+        }
+        return chain == null ? EMPTY : chain.toArray(EMPTY);
+    }
+}
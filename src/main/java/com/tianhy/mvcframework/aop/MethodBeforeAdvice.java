@@ -0,0 +1,14 @@
+package com.tianhy.mvcframework.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * @Desc: 前置增强(pre-handle)，抛出异常可以阻止目标方法执行
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@FunctionalInterface
+public interface MethodBeforeAdvice {
+
+    void before(Method method, Object[] args, Object target) throws Exception;
+}
@@ -0,0 +1,12 @@
+package com.tianhy.mvcframework.aop;
+
+/**
+ * @Desc: 环绕增强
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@FunctionalInterface
+public interface MethodInterceptor {
+
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
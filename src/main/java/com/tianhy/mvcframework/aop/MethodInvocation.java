@@ -0,0 +1,31 @@
+package com.tianhy.mvcframework.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * @Desc: 一次被拦截的方法调用
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface MethodInvocation {
+
+    /**
+     * 目标类上的方法
+     */
+    Method getMethod();
+
+    /**
+     * 实参，拦截器可以修改
+     */
+    Object[] getArguments();
+
+    /**
+     * 目标对象
+     */
+    Object getThis();
+
+    /**
+     * 执行调用链中的下一个拦截器，最后执行目标方法
+     */
+    Object proceed() throws Throwable;
+}
@@ -0,0 +1,210 @@
+package com.tianhy.mvcframework.async;
+
+import com.tianhy.mvcframework.beans.RequestContextHolder;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Desc: 异步处理返回 CompletionStage / Callable 的controller方法
+ * <p>
+ * 调用 req.startAsync() 后立即归还容器线程，controller方法在独立的线程池中执行，
+ * CompletionStage 完成时(或 Callable 执行完后)再写响应并 complete。
+ * 超时返回 503，执行异常交给 ResultHandler 映射成错误响应；结果和超时谁先到谁生效，只写一次。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class AsyncRequestProcessor {
+
+    /**
+     * 配置项：异步执行线程数
+     */
+    public static final String THREADS_PROPERTY = "async.executor.threads";
+
+    /**
+     * 配置项：异步请求超时时间(毫秒)
+     */
+    public static final String TIMEOUT_PROPERTY = "async.timeout";
+
+    /**
+     * 同步等待结果时超时的标记
+     */
+    private static final Object TIMED_OUT = new Object();
+
+    private final ExecutorService executor;
+
+    private final long timeoutMillis;
+
+    public AsyncRequestProcessor(int threads, long timeoutMillis) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "mvc-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 返回值类型是否需要异步处理
+     */
+    public static boolean isAsyncReturnType(Class<?> returnType) {
+        return CompletionStage.class.isAssignableFrom(returnType) || Callable.class.isAssignableFrom(returnType);
+    }
+
+    /**
+     * 异步执行
+     *
+     * @param invocation 调用controller方法，返回 CompletionStage 或 Callable
+     * @param handler    写结果/写错误
+     * @return 是否转成了异步处理，true 时 handler 会在之后的某个线程里被回调
+     */
+    public boolean process(HttpServletRequest req, HttpServletResponse resp, Callable<Object> invocation, ResultHandler handler) throws Exception {
+        if (!req.isAsyncSupported() || req.isAsyncStarted()) {
+            //容器没有开启async-supported，或者整个请求已经转移到了执行器线程上(dispatcher.mode)，
+            //在当前线程等待结果，超时和异步处理一样返回 503
+            Object result = awaitResult(invocation.call());
+            if (result == TIMED_OUT) {
+                writeTimeout(resp);
+            } else {
+                handler.handleResult(result, req, resp);
+            }
+            return false;
+        }
+
+        AsyncContext asyncContext = req.startAsync(req, resp);
+        asyncContext.setTimeout(timeoutMillis);
+        AtomicBoolean done = new AtomicBoolean();
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (done.compareAndSet(false, true)) {
+                    writeTimeout(resp);
+                    handler.onComplete(new TimeoutException("Async request timeout after " + timeoutMillis + "ms"));
+                    asyncContext.complete();
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                if (done.compareAndSet(false, true)) {
+                    complete(asyncContext, req, resp, null, event.getThrowable(), handler);
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        executor.execute(() -> {
+            RequestContextHolder.setRequest(req);
+            try {
+                Object returnValue = invocation.call();
+                if (returnValue instanceof CompletionStage) {
+                    ((CompletionStage<?>) returnValue).whenCompleteAsync((result, error) -> {
+                        if (done.compareAndSet(false, true)) {
+                            complete(asyncContext, req, resp, result, unwrap(error), handler);
+                        }
+                    }, executor);
+                    return;
+                }
+                Object result = returnValue instanceof Callable ? ((Callable<?>) returnValue).call() : returnValue;
+                if (done.compareAndSet(false, true)) {
+                    complete(asyncContext, req, resp, result, null, handler);
+                }
+            } catch (Throwable e) {
+                if (done.compareAndSet(false, true)) {
+                    complete(asyncContext, req, resp, null, unwrap(e), handler);
+                }
+            } finally {
+                RequestContextHolder.resetRequest();
+            }
+        });
+        return true;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Object awaitResult(Object returnValue) throws Exception {
+        if (returnValue instanceof CompletionStage) {
+            try {
+                return ((CompletionStage<?>) returnValue).toCompletableFuture().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return TIMED_OUT;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+        if (returnValue instanceof Callable) {
+            return ((Callable<?>) returnValue).call();
+        }
+        return returnValue;
+    }
+
+    private void writeTimeout(HttpServletResponse resp) throws IOException {
+        resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        resp.getWriter().write("503, Async request timeout after " + timeoutMillis + "ms");
+    }
+
+    private void complete(AsyncContext asyncContext, HttpServletRequest req, HttpServletResponse resp,
+                          Object result, Throwable error, ResultHandler handler) {
+        Throwable failure = error;
+        try {
+            if (error == null) {
+                handler.handleResult(result, req, resp);
+            } else {
+                handler.handleError(error, req, resp);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            if (failure == null) {
+                failure = e;
+            }
+        } finally {
+            handler.onComplete(failure);
+            asyncContext.complete();
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException
+                || error instanceof InvocationTargetException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * 写异步结果
+     */
+    public interface ResultHandler {
+
+        void handleResult(Object result, HttpServletRequest req, HttpServletResponse resp) throws Exception;
+
+        void handleError(Throwable error, HttpServletRequest req, HttpServletResponse resp) throws Exception;
+
+        /**
+         * 转成异步处理的请求结束时回调(complete 之前)，同步等待结果的请求不会回调
+         *
+         * @param failure 执行或写响应时的异常，超时为 TimeoutException，成功为 null
+         */
+        default void onComplete(Throwable failure) {
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.tianhy.mvcframework.async;
+
+import com.tianhy.mvcframework.startup.StartupProfiler;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Desc: 把整个 doDispatch 从容器线程转移到独立的执行器上
+ * <p>
+ * 通过 dispatcher.mode 配置：
+ * <ul>
+ * <li>platform(默认)：不转移，直接在容器线程上执行</li>
+ * <li>executor：转移到固定大小的平台线程池</li>
+ * <li>virtual：每个请求一个虚拟线程(JDK 21+)，阻塞式的controller不再占用平台线程；JDK不支持时退回executor模式</li>
+ * </ul>
+ * 同时执行的handler数量由 dispatcher.maxConcurrentHandlers 信号量限制，许可在容器线程上获取，
+ * 拿到许可才开启异步并提交到执行器，拿不到许可的请求直接返回 503。
+ * dispatcher.acquireTimeout 默认 0，不等待；大于 0 时容器线程最多等这么多毫秒，期间占着容器线程。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class OffloadingDispatcher {
+
+    public static final String MODE_PROPERTY = "dispatcher.mode";
+    public static final String MAX_CONCURRENT_PROPERTY = "dispatcher.maxConcurrentHandlers";
+    public static final String ACQUIRE_TIMEOUT_PROPERTY = "dispatcher.acquireTimeout";
+    public static final String THREADS_PROPERTY = "dispatcher.executor.threads";
+
+    public static final String MODE_PLATFORM = "platform";
+    public static final String MODE_EXECUTOR = "executor";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final String mode;
+    private final ExecutorService executor;
+    /**
+     * 为 null 表示不限制并发
+     */
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    private OffloadingDispatcher(String mode, ExecutorService executor, Semaphore permits, long acquireTimeoutMillis) {
+        this.mode = mode;
+        this.executor = executor;
+        this.permits = permits;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * 按配置创建
+     *
+     * @param profiler JDK不支持虚拟线程、退回executor模式时记录启动警告
+     * @return platform 模式返回 null，调用方直接在容器线程上处理
+     */
+    public static OffloadingDispatcher create(Properties config, StartupProfiler profiler) {
+        String mode = config.getProperty(MODE_PROPERTY, MODE_PLATFORM).trim();
+        if (MODE_PLATFORM.equalsIgnoreCase(mode)) {
+            return null;
+        }
+        ExecutorService executor = null;
+        if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            executor = newVirtualThreadExecutor();
+            if (executor == null) {
+                profiler.addWarning("Virtual threads are not supported by this JVM, fallback to " + MODE_PROPERTY + "=" + MODE_EXECUTOR);
+                mode = MODE_EXECUTOR;
+            }
+        } else if (!MODE_EXECUTOR.equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("Unknown " + MODE_PROPERTY + ": " + mode);
+        }
+        if (executor == null) {
+            int threads = Integer.parseInt(config.getProperty(THREADS_PROPERTY, "200"));
+            AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "mvc-dispatch-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        int maxConcurrent = Integer.parseInt(config.getProperty(MAX_CONCURRENT_PROPERTY, "0"));
+        Semaphore permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+        long acquireTimeout = Long.parseLong(config.getProperty(ACQUIRE_TIMEOUT_PROPERTY, "0"));
+        return new OffloadingDispatcher(mode.toLowerCase(), executor, permits, acquireTimeout);
+    }
+
+    /**
+     * 在容器线程上获取许可，拿到后开启异步，在执行器上调用 task，task 返回后 complete
+     */
+    public void dispatch(HttpServletRequest req, HttpServletResponse resp, DispatchTask task) throws IOException {
+        boolean acquired;
+        try {
+            acquired = acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            writeUnavailable(resp);
+            return;
+        }
+        AsyncContext asyncContext;
+        try {
+            asyncContext = req.startAsync(req, resp);
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+        //与容器线程上的阻塞处理保持一致，不设超时；背压由信号量控制
+        asyncContext.setTimeout(0);
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run(req, resp);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    release();
+                    asyncContext.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //执行器已经关闭
+            release();
+            writeUnavailable(resp);
+            asyncContext.complete();
+        }
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private boolean acquire() throws InterruptedException {
+        if (permits == null) {
+            return true;
+        }
+        return acquireTimeoutMillis <= 0 ? permits.tryAcquire() : permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    private static void writeUnavailable(HttpServletResponse resp) throws IOException {
+        resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        resp.getWriter().write("503, Too many concurrent requests");
+    }
+
+    /**
+     * JDK 21 的 Executors.newVirtualThreadPerTaskExecutor()，通过反射调用以便在低版本JDK上编译运行
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 在执行器线程上处理一个请求
+     */
+    @FunctionalInterface
+    public interface DispatchTask {
+        void run(HttpServletRequest req, HttpServletResponse resp) throws IOException;
+    }
+}
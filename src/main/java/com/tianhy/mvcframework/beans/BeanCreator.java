@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.beans;
+
+/**
+ * @Desc: 创建bean实例(实例化+依赖注入+代理)的回调，所有由容器创建的bean都在第一次获取时通过它创建
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@FunctionalInterface
+public interface BeanCreator {
+
+    /**
+     * @param definition 要创建的bean
+     * @param owner      bean所属的容器，依赖从这里获取
+     */
+    Object create(BeanDefinition definition, BeanFactory owner);
+}
@@ -0,0 +1,65 @@
+package com.tianhy.mvcframework.beans;
+
+/**
+ * @Desc: bean的定义：名字、类型、作用域、是否延迟创建
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class BeanDefinition {
+
+    public static final String SCOPE_SINGLETON = "singleton";
+
+    public static final String SCOPE_PROTOTYPE = "prototype";
+
+    /**
+     * 与HttpServletRequest绑定，同一个请求内是同一个实例
+     */
+    public static final String SCOPE_REQUEST = "request";
+
+    private final String beanName;
+    private final Class<?> beanClass;
+    private final String scope;
+    private final boolean lazy;
+
+    public BeanDefinition(String beanName, Class<?> beanClass, String scope, boolean lazy) {
+        if (!SCOPE_SINGLETON.equals(scope) && !SCOPE_PROTOTYPE.equals(scope) && !SCOPE_REQUEST.equals(scope)) {
+            throw new BeansException("Unknown scope '" + scope + "' of bean " + beanName);
+        }
+        this.beanName = beanName;
+        this.beanClass = beanClass;
+        this.scope = scope;
+        this.lazy = lazy;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public boolean isSingleton() {
+        return SCOPE_SINGLETON.equals(scope);
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * 在refresh时就创建好的单例
+     */
+    public boolean isEagerSingleton() {
+        return isSingleton() && !lazy;
+    }
+
+    @Override
+    public String toString() {
+        return beanName + "[" + beanClass.getName() + ", scope=" + scope + (lazy ? ", lazy" : "") + "]";
+    }
+}
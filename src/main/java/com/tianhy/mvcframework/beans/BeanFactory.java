@@ -0,0 +1,45 @@
+package com.tianhy.mvcframework.beans;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @Desc: IOC容器的只读视图，按名字或按类型取bean
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface BeanFactory {
+
+    /**
+     * 按beanName或别名(接口全类名)获取
+     *
+     * @throws BeansException 没有该bean
+     */
+    Object getBean(String name);
+
+    /**
+     * 按类型获取唯一的bean
+     *
+     * @throws BeansException 没有或者有多个该类型的bean
+     */
+    <T> T getBean(Class<T> type);
+
+    /**
+     * 获取某类型的所有bean，key为beanName
+     */
+    <T> Map<String, T> getBeansOfType(Class<T> type);
+
+    boolean containsBean(String name);
+
+    /**
+     * 按beanName或别名获取bean的定义
+     *
+     * @throws BeansException 没有该bean
+     */
+    BeanDefinition getBeanDefinition(String name);
+
+    /**
+     * 所有的beanName，不包含别名
+     */
+    Set<String> getBeanNames();
+}
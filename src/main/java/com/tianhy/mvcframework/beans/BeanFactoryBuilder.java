@@ -0,0 +1,90 @@
+package com.tianhy.mvcframework.beans;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Desc: refresh 阶段使用的可写容器
+ * <p>
+ * 只在刷新线程里使用，不是线程安全的；登记完所有bean后调用 build() 冻结成 DefaultBeanFactory。
+ * 外部传入的单例以实例登记，其余bean只登记定义，由冻结后的容器创建。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class BeanFactoryBuilder {
+
+    private final Map<String, BeanDefinition> definitions = new LinkedHashMap<>();
+
+    /**
+     * 已经创建好的单例：beanName -> 实例
+     */
+    private final Map<String, Object> singletons = new LinkedHashMap<>();
+
+    /**
+     * 别名 -> beanName，比如接口全类名 -> 实现类的beanName
+     */
+    private final Map<String, String> aliases = new HashMap<>();
+
+    private boolean built;
+
+    /**
+     * 登记一个已经创建好的单例
+     */
+    public void registerSingleton(String name, Object bean) {
+        registerBeanDefinition(new BeanDefinition(name, bean.getClass(), BeanDefinition.SCOPE_SINGLETON, false));
+        singletons.put(name, bean);
+    }
+
+    /**
+     * 登记一个bean定义，实例在第一次获取时创建
+     */
+    public void registerBeanDefinition(BeanDefinition definition) {
+        checkNotBuilt();
+        if (containsBean(definition.getBeanName())) {
+            throw new BeansException("The " + definition.getBeanName() + " is exist!");
+        }
+        definitions.put(definition.getBeanName(), definition);
+    }
+
+    public void registerAlias(String alias, String name) {
+        checkNotBuilt();
+        if (containsBean(alias)) {
+            throw new BeansException("The " + alias + " is exist!");
+        }
+        aliases.put(alias, name);
+    }
+
+    public boolean containsBean(String name) {
+        return definitions.containsKey(name) || aliases.containsKey(name);
+    }
+
+    public boolean isEmpty() {
+        return definitions.isEmpty();
+    }
+
+    /**
+     * 已经创建好的单例 beanName -> 实例 的只读视图，不含别名
+     */
+    public Map<String, Object> getSingletons() {
+        return Collections.unmodifiableMap(singletons);
+    }
+
+    /**
+     * 冻结，之后这个builder不能再修改
+     *
+     * @param creator 延迟单例、prototype、request作用域的bean的创建方式
+     */
+    public DefaultBeanFactory build(BeanCreator creator) {
+        checkNotBuilt();
+        built = true;
+        return new DefaultBeanFactory(definitions, singletons, aliases, creator);
+    }
+
+    private void checkNotBuilt() {
+        if (built) {
+            throw new IllegalStateException("BeanFactory has already been built");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tianhy.mvcframework.beans;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * @Desc: 按作用域持有/创建bean实例
+ * <p>
+ * 单例用 volatile + 双重检查创建一次；prototype 每次创建；request 作用域保存在当前请求的属性里。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+final class BeanHolder {
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = BeanHolder.class.getName() + ".";
+
+    private final BeanDefinition definition;
+
+    private volatile Object instance;
+
+    /**
+     * 正在创建单例的线程，用来发现创建过程中的循环引用
+     */
+    private Thread creatingThread;
+
+    BeanHolder(BeanDefinition definition, Object instance) {
+        this.definition = definition;
+        this.instance = instance;
+    }
+
+    BeanDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * 已经创建好的单例，没有时返回 null，不会触发创建
+     */
+    Object getInstanceIfCreated() {
+        return instance;
+    }
+
+    Object getObject(BeanCreator creator, BeanFactory owner) {
+        if (definition.isSingleton()) {
+            Object bean = instance;
+            if (bean != null) {
+                return bean;
+            }
+            synchronized (this) {
+                bean = instance;
+                if (bean == null) {
+                    if (creatingThread == Thread.currentThread()) {
+                        throw new BeansException("Bean " + definition.getBeanName() + " is currently in creation: circular reference");
+                    }
+                    creatingThread = Thread.currentThread();
+                    try {
+                        bean = creator.create(definition, owner);
+                        instance = bean;
+                    } finally {
+                        creatingThread = null;
+                    }
+                }
+            }
+            return bean;
+        }
+        if (BeanDefinition.SCOPE_PROTOTYPE.equals(definition.getScope())) {
+            return creator.create(definition, owner);
+        }
+
+        HttpServletRequest request = RequestContextHolder.currentRequest();
+        if (request == null) {
+            throw new BeansException("No request bound to current thread for request scoped bean " + definition.getBeanName());
+        }
+        String attribute = REQUEST_ATTRIBUTE_PREFIX + definition.getBeanName();
+        Object bean = request.getAttribute(attribute);
+        if (bean == null) {
+            bean = creator.create(definition, owner);
+            request.setAttribute(attribute, bean);
+        }
+        return bean;
+    }
+}
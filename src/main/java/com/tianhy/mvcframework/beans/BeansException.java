@@ -0,0 +1,19 @@
+package com.tianhy.mvcframework.beans;
+
+/**
+ * @Desc: 容器相关的运行期异常：找不到bean、bean不唯一、重复注册等
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class BeansException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BeansException(String message) {
+        super(message);
+    }
+
+    public BeansException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,163 @@
+package com.tianhy.mvcframework.beans;
+
+import java.util.*;
+
+/**
+ * @Desc: 初始化完成后冻结的容器
+ * <p>
+ * 所有的表在构造时一次性建好，之后只读不写：字段都是 final，内部都是不可变 Map，
+ * 请求线程并发读取不需要加锁，按名字和按类型查找都是一次 hash 查找。
+ * 延迟创建的实例由 BeanHolder 自己保证线程安全。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class DefaultBeanFactory implements BeanFactory {
+
+    /**
+     * beanName和别名 -> holder
+     */
+    private final Map<String, BeanHolder> holders;
+
+    /**
+     * beanName -> holder，不含别名，保持登记顺序
+     */
+    private final Map<String, BeanHolder> namedHolders;
+
+    /**
+     * 类型(包括父类和所有接口) -> 该类型的beanName
+     */
+    private final Map<Class<?>, List<String>> beanNamesByType;
+
+    private final BeanCreator creator;
+
+    DefaultBeanFactory(Map<String, BeanDefinition> definitions, Map<String, Object> singletons,
+                       Map<String, String> aliases, BeanCreator creator) {
+        this.creator = creator;
+        Map<String, BeanHolder> named = new LinkedHashMap<>();
+        Map<Class<?>, List<String>> byType = new HashMap<>();
+        for (BeanDefinition definition : definitions.values()) {
+            named.put(definition.getBeanName(), new BeanHolder(definition, singletons.get(definition.getBeanName())));
+            for (Class<?> type : typeHierarchy(definition.getBeanClass())) {
+                byType.computeIfAbsent(type, k -> new ArrayList<>()).add(definition.getBeanName());
+            }
+        }
+        Map<String, BeanHolder> all = new HashMap<>(named);
+        for (Map.Entry<String, String> alias : aliases.entrySet()) {
+            all.put(alias.getKey(), named.get(alias.getValue()));
+        }
+        for (Map.Entry<Class<?>, List<String>> entry : byType.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.holders = Collections.unmodifiableMap(all);
+        this.namedHolders = Collections.unmodifiableMap(named);
+        this.beanNamesByType = Collections.unmodifiableMap(byType);
+    }
+
+    @Override
+    public Object getBean(String name) {
+        return holder(name).getObject(creator, this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getBean(Class<T> type) {
+        List<String> names = beanNamesByType.get(type);
+        if (names == null || names.isEmpty()) {
+            throw new BeansException("No bean of type " + type.getName() + " is defined");
+        }
+        if (names.size() > 1) {
+            throw new BeansException("Expected single bean of type " + type.getName() + " but found " + names);
+        }
+        return (T) getBean(names.get(0));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getBeansOfType(Class<T> type) {
+        List<String> names = beanNamesByType.get(type);
+        if (names == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, T> beans = new LinkedHashMap<>();
+        for (String name : names) {
+            beans.put(name, (T) getBean(name));
+        }
+        return beans;
+    }
+
+    @Override
+    public boolean containsBean(String name) {
+        return holders.containsKey(name);
+    }
+
+    @Override
+    public BeanDefinition getBeanDefinition(String name) {
+        return holder(name).getDefinition();
+    }
+
+    @Override
+    public Set<String> getBeanNames() {
+        return namedHolders.keySet();
+    }
+
+    /**
+     * 按类型找唯一的beanName
+     *
+     * @return 没有该类型的bean时返回 null
+     * @throws BeansException 该类型的bean不止一个
+     */
+    public String getBeanNameForType(Class<?> type) {
+        List<String> names = beanNamesByType.get(type);
+        if (names == null || names.isEmpty()) {
+            return null;
+        }
+        if (names.size() > 1) {
+            throw new BeansException("Expected single bean of type " + type.getName() + " but found " + names);
+        }
+        return names.get(0);
+    }
+
+    /**
+     * 已经创建好的单例 beanName -> 实例，不会触发创建
+     */
+    public Map<String, Object> getSingletonInstances() {
+        Map<String, Object> instances = new LinkedHashMap<>();
+        for (Map.Entry<String, BeanHolder> entry : namedHolders.entrySet()) {
+            Object instance = entry.getValue().getInstanceIfCreated();
+            if (instance != null) {
+                instances.put(entry.getKey(), instance);
+            }
+        }
+        return instances;
+    }
+
+    @Override
+    public String toString() {
+        return namedHolders.keySet().toString();
+    }
+
+    private BeanHolder holder(String name) {
+        BeanHolder holder = holders.get(name);
+        if (holder == null) {
+            throw new BeansException("No bean named '" + name + "' is defined");
+        }
+        return holder;
+    }
+
+    private static Set<Class<?>> typeHierarchy(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(clazz);
+        while (!queue.isEmpty()) {
+            Class<?> c = queue.poll();
+            if (!types.add(c)) {
+                continue;
+            }
+            if (c.getSuperclass() != null) {
+                queue.add(c.getSuperclass());
+            }
+            queue.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        return types;
+    }
+}
@@ -0,0 +1,71 @@
+package com.tianhy.mvcframework.beans;
+
+import java.util.*;
+
+/**
+ * @Desc: bean之间的依赖关系图(有向无环图)
+ * <p>
+ * 节点是beanName，边是"创建时需要的依赖"(构造器参数和直接注入的字段)。用来给出拓扑顺序、发现循环依赖，
+ * 并让没有依赖关系的子图可以并行创建。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class DependencyGraph {
+
+    /**
+     * beanName -> 它依赖的beanName，保持登记顺序
+     */
+    private final Map<String, List<String>> dependencies = new LinkedHashMap<>();
+
+    public void addNode(String beanName, List<String> dependsOn) {
+        dependencies.put(beanName, new ArrayList<>(dependsOn));
+    }
+
+    public List<String> getDependencies(String beanName) {
+        List<String> deps = dependencies.get(beanName);
+        return deps == null ? Collections.<String>emptyList() : Collections.unmodifiableList(deps);
+    }
+
+    /**
+     * 拓扑排序，依赖在前
+     * 只有图中的节点参与排序，指向图外节点的边忽略(图外的bean已经创建好或者是延迟创建的)
+     *
+     * @throws BeansException 存在循环依赖，异常信息中给出完整的环，如 a -> b -> a
+     */
+    public List<String> topologicalOrder() {
+        List<String> order = new ArrayList<>(dependencies.size());
+        Set<String> visited = new HashSet<>();
+        //当前DFS路径，用LinkedHashSet既能O(1)判断是否在路径上，又能按顺序输出环
+        LinkedHashSet<String> path = new LinkedHashSet<>();
+        for (String beanName : dependencies.keySet()) {
+            visit(beanName, visited, path, order);
+        }
+        return order;
+    }
+
+    private void visit(String beanName, Set<String> visited, LinkedHashSet<String> path, List<String> order) {
+        if (visited.contains(beanName)) {
+            return;
+        }
+        if (!path.add(beanName)) {
+            List<String> cycle = new ArrayList<>();
+            boolean inCycle = false;
+            for (String node : path) {
+                inCycle = inCycle || node.equals(beanName);
+                if (inCycle) {
+                    cycle.add(node);
+                }
+            }
+            cycle.add(beanName);
+            throw new BeansException("Circular dependency between beans: " + String.join(" -> ", cycle));
+        }
+        for (String dependency : dependencies.get(beanName)) {
+            if (dependencies.containsKey(dependency)) {
+                visit(dependency, visited, path, order);
+            }
+        }
+        path.remove(beanName);
+        visited.add(beanName);
+        order.add(beanName);
+    }
+}
@@ -0,0 +1,28 @@
+package com.tianhy.mvcframework.beans;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * @Desc: 把当前请求绑定到处理线程上，request作用域的bean以请求属性的形式保存
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class RequestContextHolder {
+
+    private static final ThreadLocal<HttpServletRequest> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private RequestContextHolder() {
+    }
+
+    public static void setRequest(HttpServletRequest request) {
+        CURRENT_REQUEST.set(request);
+    }
+
+    public static HttpServletRequest currentRequest() {
+        return CURRENT_REQUEST.get();
+    }
+
+    public static void resetRequest() {
+        CURRENT_REQUEST.remove();
+    }
+}
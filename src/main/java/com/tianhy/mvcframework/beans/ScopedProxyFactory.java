@@ -0,0 +1,32 @@
+package com.tianhy.mvcframework.beans;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * @Desc: 为延迟单例、prototype、request作用域的bean生成JDK动态代理
+ * <p>
+ * 注入的是代理，每次调用时才从容器取真正的目标对象，所以延迟bean在第一次调用前不会创建，
+ * request作用域的bean在每个请求里拿到的是各自的实例。只能代理接口。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class ScopedProxyFactory {
+
+    private ScopedProxyFactory() {
+    }
+
+    public static Object createProxy(BeanFactory beanFactory, String beanName, Class<?> interfaceType) {
+        return Proxy.newProxyInstance(interfaceType.getClassLoader(), new Class<?>[]{interfaceType}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class && "toString".equals(method.getName())) {
+                return "ScopedProxy[" + beanName + "]";
+            }
+            Object target = beanFactory.getBean(beanName);
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        });
+    }
+}
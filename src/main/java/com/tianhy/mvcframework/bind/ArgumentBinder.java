@@ -0,0 +1,22 @@
+package com.tianhy.mvcframework.bind;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @Desc: 为 handler 方法的某一个形参取值
+ * <p>
+ * 初始化时为每个形参生成一个，请求时 DispatchPlan 按形参顺序逐个调用，
+ * 名字、类型、转换器等都在生成时算好，这里只做取值和转换。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@FunctionalInterface
+public interface ArgumentBinder {
+
+    /**
+     * @param pathVariables 路由树取出的路径变量，没有任何路由带变量时为 null
+     * @return 形参的值
+     */
+    Object bind(HttpServletRequest req, HttpServletResponse resp, String[] pathVariables) throws Exception;
+}
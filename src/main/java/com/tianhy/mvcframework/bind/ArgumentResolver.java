@@ -0,0 +1,22 @@
+package com.tianhy.mvcframework.bind;
+
+import java.lang.reflect.Parameter;
+
+/**
+ * @Desc: 自定义形参解析
+ * <p>
+ * 用户可以实现这个接口并加上 @MyService，Handler 初始化时对没有 @MyRequestParam/@MyPathVariable/@MyRequestBody/@MyRequestHeader
+ * 注解的形参，按注册顺序询问每个解析器，第一个返回非 null 的 ArgumentBinder 就固定用于这个形参，请求时不再询问。
+ * 内置的 HttpServletRequest/HttpServletResponse/HttpSession 形参排在自定义解析器之后。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface ArgumentResolver {
+
+    /**
+     * 初始化时调用
+     *
+     * @return 该形参的取值器，不处理这个形参时返回 null
+     */
+    ArgumentBinder createBinder(Parameter parameter);
+}
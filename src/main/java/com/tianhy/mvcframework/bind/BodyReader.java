@@ -0,0 +1,182 @@
+package com.tianhy.mvcframework.bind;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * @Desc: 边读边解码请求体的 Reader
+ * <p>
+ * 字节和字符缓冲区各 8K，实例放在一个有界的池里复用，解析请求体时不再为每个请求分配 InputStreamReader / StreamDecoder；
+ * 每次从底层流读到数据都累加字节数，超过上限立刻抛出 PayloadTooLargeException，不会先把请求体读完。
+ * 用法：acquire 取得，读完后 release 放回池里；没有 release 的实例(比如没读完的惰性迭代器)交给 GC 回收即可。
+ * close() 不会关闭底层的流。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class BodyReader extends Reader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int POOL_SIZE = 64;
+
+    private static final ArrayBlockingQueue<BodyReader> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+    private CharsetDecoder decoder;
+
+    private InputStream in;
+
+    /**
+     * 最大字节数，小于 0 不限制
+     */
+    private long maxSize;
+
+    /**
+     * 已经从底层流读到的字节数
+     */
+    private long total;
+
+    private boolean endOfInput;
+
+    private boolean flushed;
+
+    private BodyReader() {
+    }
+
+    /**
+     * 从池里取一个实例，并指向 in
+     *
+     * @param maxSize 最大字节数，小于 0 不限制
+     */
+    public static BodyReader acquire(InputStream in, Charset charset, long maxSize) {
+        BodyReader reader = POOL.poll();
+        if (reader == null) {
+            reader = new BodyReader();
+        }
+        if (reader.decoder == null || !reader.decoder.charset().equals(charset)) {
+            reader.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        } else {
+            reader.decoder.reset();
+        }
+        reader.in = in;
+        reader.maxSize = maxSize;
+        reader.total = 0;
+        reader.endOfInput = false;
+        reader.flushed = false;
+        reader.bytes.clear().flip();
+        reader.chars.clear().flip();
+        return reader;
+    }
+
+    /**
+     * 解除与底层流的关联并放回池里，重复调用无效
+     */
+    public void release() {
+        if (in == null) {
+            return;
+        }
+        in = null;
+        POOL.offer(this);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return chars.get();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        int n = Math.min(len, chars.remaining());
+        chars.get(cbuf, off, n);
+        return n;
+    }
+
+    /**
+     * 下一个字符，不消费；没有了返回 -1
+     */
+    public int peek() throws IOException {
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return chars.get(chars.position());
+    }
+
+    /**
+     * 跳过空白字符，返回下一个非空白字符(不消费)；没有了返回 -1
+     */
+    public int peekNonWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && Character.isWhitespace(c)) {
+            chars.get();
+        }
+        return c;
+    }
+
+    public long getBytesRead() {
+        return total;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * 解码出下一批字符，字节不够时从底层流补充
+     */
+    private boolean fill() throws IOException {
+        if (in == null) {
+            throw new IOException("BodyReader has been released");
+        }
+        chars.clear();
+        while (chars.position() == 0) {
+            if (endOfInput) {
+                decoder.decode(bytes, chars, true);
+                if (!flushed) {
+                    decoder.flush(chars);
+                    flushed = true;
+                }
+                break;
+            }
+            decoder.decode(bytes, chars, false);
+            if (chars.position() > 0) {
+                break;
+            }
+            //剩余的字节不够解码出一个字符，挪到缓冲区开头再读
+            bytes.compact();
+            int n = in.read(bytes.array(), bytes.position(), bytes.remaining());
+            if (n < 0) {
+                endOfInput = true;
+            } else {
+                total += n;
+                if (maxSize >= 0 && total > maxSize) {
+                    throw new PayloadTooLargeException(maxSize);
+                }
+                bytes.position(bytes.position() + n);
+            }
+            bytes.flip();
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+}
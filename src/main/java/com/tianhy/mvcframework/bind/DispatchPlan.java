@@ -0,0 +1,233 @@
+package com.tianhy.mvcframework.bind;
+
+import com.tianhy.mvcframework.annotation.*;
+import com.tianhy.mvcframework.convert.ConversionService;
+import com.tianhy.mvcframework.router.RouteTrie;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Desc: handler 方法的参数绑定计划
+ * <p>
+ * 初始化时为每个形参选好取值方式，按形参顺序放在数组里；
+ * 请求时只是一个循环，request/response/session 直接赋值，其余形参调用选好的 ArgumentBinder，不再按参数名或类名查 HashMap。
+ * 选择顺序：@MyRequestParam / @MyPathVariable / @MyRequestBody / @MyRequestHeader，
+ * 然后是容器中的 ArgumentResolver，最后是 HttpServletRequest / HttpServletResponse / HttpSession；都不匹配的形参传 null。
+ * 创建后不再修改，可以被多个请求线程共享。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class DispatchPlan {
+
+    /**
+     * 形参的取值方式：没有取值器传 null，request/response/session 直接在循环里赋值，其余调用取值器
+     */
+    private static final byte NONE = 0;
+
+    private static final byte REQUEST = 1;
+
+    private static final byte RESPONSE = 2;
+
+    private static final byte SESSION = 3;
+
+    private static final byte BINDER = 4;
+
+    private final byte[] kinds;
+
+    /**
+     * 每个形参一个，只有 kinds 为 BINDER 的位置不为 null
+     */
+    private final ArgumentBinder[] binders;
+
+    /**
+     * 作为响应缓存键的形参下标：请求参数、路径变量、请求头
+     */
+    private final int[] cacheKeyIndexes;
+
+    /**
+     * HttpServletResponse 形参的下标，没有为 -1
+     */
+    private final int responseIndex;
+
+    private DispatchPlan(byte[] kinds, ArgumentBinder[] binders, int[] cacheKeyIndexes, int responseIndex) {
+        this.kinds = kinds;
+        this.binders = binders;
+        this.cacheKeyIndexes = cacheKeyIndexes;
+        this.responseIndex = responseIndex;
+    }
+
+    /**
+     * 为方法生成绑定计划
+     *
+     * @param route              路由模板，用来确定路径变量的位置
+     * @param resolvers          自定义解析器，按顺序询问
+     * @param defaultBodyMaxSize @MyRequestBody 没有指定 maxSize 时的请求体上限
+     * @throws IllegalStateException 路径变量名不在模板中，或有多个 @MyRequestBody
+     */
+    public static DispatchPlan build(Method method, String route, ConversionService conversionService,
+                                     List<ArgumentResolver> resolvers, long defaultBodyMaxSize) {
+        Parameter[] parameters = method.getParameters();
+        List<String> variableNames = RouteTrie.variableNames(route);
+        byte[] kinds = new byte[parameters.length];
+        ArgumentBinder[] binders = new ArgumentBinder[parameters.length];
+        List<Integer> cacheKeyIndexes = new ArrayList<>();
+        int responseIndex = -1;
+        boolean hasBody = false;
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            Class<?> type = parameter.getType();
+            for (Annotation a : parameter.getAnnotations()) {
+                if (a instanceof MyRequestParam) {
+                    String name = ((MyRequestParam) a).value().trim();
+                    //没写参数名的 @MyRequestParam 一直不绑定，保持原样
+                    if (!name.isEmpty()) {
+                        binders[i] = new RequestParamBinder(name, type, parameter.getParameterizedType(), conversionService);
+                        cacheKeyIndexes.add(i);
+                    }
+                } else if (a instanceof MyPathVariable) {
+                    String name = nameOf(((MyPathVariable) a).value(), parameter);
+                    int variableIndex = variableNames.indexOf(name);
+                    if (variableIndex < 0) {
+                        throw new IllegalStateException("Path variable '" + name + "' is not declared in route "
+                                + route + " of method " + method);
+                    }
+                    binders[i] = new PathVariableBinder(name, variableIndex, type, conversionService);
+                    cacheKeyIndexes.add(i);
+                } else if (a instanceof MyRequestBody) {
+                    if (hasBody) {
+                        throw new IllegalStateException("Only one @MyRequestBody parameter is allowed on method " + method);
+                    }
+                    hasBody = true;
+                    binders[i] = new RequestBodyBinder(type, parameter.getParameterizedType(), (MyRequestBody) a, defaultBodyMaxSize);
+                } else if (a instanceof MyRequestHeader) {
+                    String name = nameOf(((MyRequestHeader) a).value(), parameter);
+                    binders[i] = new RequestHeaderBinder(name, type, parameter.getParameterizedType(), conversionService);
+                    cacheKeyIndexes.add(i);
+                } else {
+                    continue;
+                }
+                break;
+            }
+            if (binders[i] != null) {
+                kinds[i] = BINDER;
+                continue;
+            }
+            for (ArgumentResolver resolver : resolvers) {
+                binders[i] = resolver.createBinder(parameter);
+                if (binders[i] != null) {
+                    break;
+                }
+            }
+            if (binders[i] != null) {
+                kinds[i] = BINDER;
+            } else if (type == HttpServletRequest.class) {
+                kinds[i] = REQUEST;
+            } else if (type == HttpServletResponse.class) {
+                kinds[i] = RESPONSE;
+                responseIndex = i;
+            } else if (type == HttpSession.class) {
+                kinds[i] = SESSION;
+            }
+        }
+        int[] keyIndexes = new int[cacheKeyIndexes.size()];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            keyIndexes[i] = cacheKeyIndexes.get(i);
+        }
+        return new DispatchPlan(kinds, binders, keyIndexes, responseIndex);
+    }
+
+    /**
+     * 按计划取出所有形参的值
+     *
+     * @param pathVariables 路由树取出的路径变量，没有任何路由带变量时为 null
+     */
+    public Object[] resolveArguments(HttpServletRequest req, HttpServletResponse resp, String[] pathVariables) throws Exception {
+        byte[] kinds = this.kinds;
+        Object[] args = new Object[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case REQUEST:
+                    args[i] = req;
+                    break;
+                case RESPONSE:
+                    args[i] = resp;
+                    break;
+                case SESSION:
+                    args[i] = req.getSession();
+                    break;
+                case BINDER:
+                    args[i] = binders[i].bind(req, resp, pathVariables);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return args;
+    }
+
+    /**
+     * 找出会影响方法结果、却不在响应缓存键里的形参
+     *
+     * @return 形参的描述，全部在键里(或只是 HttpServletResponse)时返回 null
+     */
+    public String findUnkeyedParameter(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == REQUEST || kinds[i] == SESSION) {
+                return parameters[i].getType().getSimpleName() + " parameter #" + i;
+            }
+            //ArgumentResolver 和 @MyRequestBody 取的值(比如当前用户)不在键里
+            if (kinds[i] == BINDER && !isCacheKey(i)) {
+                return parameters[i].getType().getSimpleName() + " parameter #" + i + " bound by "
+                        + (binders[i] instanceof RequestBodyBinder ? "@MyRequestBody" : "an ArgumentResolver");
+            }
+        }
+        return null;
+    }
+
+    private boolean isCacheKey(int index) {
+        for (int keyIndex : cacheKeyIndexes) {
+            if (keyIndex == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从已经取好的形参值中挑出响应缓存键
+     */
+    public Object[] cacheKey(Object[] args) {
+        Object[] key = new Object[cacheKeyIndexes.length];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = args[cacheKeyIndexes[i]];
+        }
+        return key;
+    }
+
+    public int getResponseIndex() {
+        return responseIndex;
+    }
+
+    public int getParameterCount() {
+        return kinds.length;
+    }
+
+    /**
+     * 注解的 value 为空时用形参名，编译时要带 -parameters
+     */
+    private static String nameOf(String value, Parameter parameter) {
+        String name = value.trim();
+        if (name.isEmpty() && parameter.isNamePresent()) {
+            name = parameter.getName();
+        }
+        return name;
+    }
+}
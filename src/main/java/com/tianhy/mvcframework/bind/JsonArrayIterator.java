@@ -0,0 +1,176 @@
+package com.tianhy.mvcframework.bind;
+
+import org.nutz.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * @Desc: 逐个元素解析 JSON 数组的迭代器
+ * <p>
+ * 每次 hasNext 只从请求体里读出下一个元素的文本(按括号深度和字符串边界切分)，再交给 nutz 转成元素类型，
+ * 内存里同时只有一个元素，数组多大都不会整个进堆。读到数组末尾时把 BodyReader 放回池里。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+class JsonArrayIterator<T> implements Iterator<T> {
+
+    private final BodyReader reader;
+
+    private final Type elementType;
+
+    /**
+     * 当前元素的原始文本，元素之间复用
+     */
+    private final StringBuilder element = new StringBuilder();
+
+    private boolean first = true;
+
+    private boolean done;
+
+    private boolean ready;
+
+    private T next;
+
+    JsonArrayIterator(BodyReader reader, Type elementType) {
+        this.reader = reader;
+        this.elementType = elementType;
+        try {
+            int c = reader.peekNonWhitespace();
+            if (c < 0) {
+                finish();
+            } else if (c == '[') {
+                reader.read();
+            } else {
+                reader.release();
+                throw new IllegalArgumentException("Request body is not a JSON array");
+            }
+        } catch (IOException e) {
+            reader.release();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (ready) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        try {
+            int c = reader.peekNonWhitespace();
+            if (c == ']') {
+                reader.read();
+                finish();
+                return false;
+            }
+            if (!first) {
+                if (c != ',') {
+                    throw new IllegalArgumentException("Expected ',' or ']' in JSON array but found "
+                            + (c < 0 ? "end of body" : "'" + (char) c + "'"));
+                }
+                reader.read();
+            }
+            first = false;
+            readElement();
+        } catch (IOException e) {
+            finish();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            finish();
+            throw e;
+        }
+        next = parse();
+        ready = true;
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T value = next;
+        next = null;
+        ready = false;
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T parse() {
+        return (T) Json.fromJson(elementType, element);
+    }
+
+    /**
+     * 读出一个元素的文本，停在深度为 0 的 , 或 ] 之前
+     */
+    private void readElement() throws IOException {
+        element.setLength(0);
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        //顶层的值已经结束，之后只能是空白
+        boolean complete = false;
+        while (true) {
+            int c = reader.peek();
+            if (c < 0) {
+                throw new IllegalArgumentException("Unexpected end of body in JSON array");
+            }
+            if (!inString && depth == 0 && (c == ',' || c == ']')) {
+                break;
+            }
+            reader.read();
+            if (inString) {
+                element.append((char) c);
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    complete = depth == 0;
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                complete = depth == 0 && element.length() > 0;
+                element.append((char) c);
+                continue;
+            }
+            if (complete) {
+                throw new IllegalArgumentException("Expected ',' or ']' in JSON array but found '" + (char) c + "'");
+            }
+            element.append((char) c);
+            if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                complete = depth == 0;
+            }
+        }
+        if (isBlank(element)) {
+            throw new IllegalArgumentException("Empty element in JSON array");
+        }
+    }
+
+    private static boolean isBlank(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void finish() {
+        done = true;
+        reader.release();
+    }
+}
@@ -0,0 +1,105 @@
+package com.tianhy.mvcframework.bind;
+
+import com.tianhy.mvcframework.convert.ConversionService;
+import com.tianhy.mvcframework.convert.Converter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Desc: 单个 @MyPathVariable 形参的绑定器
+ * <p>
+ * 初始化时算好变量在模板中的位置并解析出转换器，请求时直接按位置从路由树取出的变量数组里取值，
+ * 不按名字查找，也不构造 Matcher。变量值只有包含 % 时才做 URL 解码，+ 在路径中不是空格，保持原样。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class PathVariableBinder implements ArgumentBinder {
+
+    /**
+     * 路径变量名
+     */
+    private final String name;
+
+    /**
+     * 变量在模板中的位置，即 RouteTrie.lookup 填入的数组下标
+     */
+    private final int variableIndex;
+
+    /**
+     * 形参类型
+     */
+    private final Class<?> type;
+
+    private final Converter<?> converter;
+
+    public PathVariableBinder(String name, int variableIndex, Class<?> type, ConversionService conversionService) {
+        this.name = name;
+        this.variableIndex = variableIndex;
+        this.type = type;
+        this.converter = conversionService.getConverter(type);
+    }
+
+    /**
+     * 取出路径变量并转换成形参类型
+     *
+     * @param variables RouteTrie.lookup 填入的原始变量值
+     * @throws IllegalArgumentException 变量值不是合法的 URL 编码，或转换失败
+     */
+    @Override
+    public Object bind(HttpServletRequest req, HttpServletResponse resp, String[] variables) {
+        String value = variables[variableIndex];
+        if (value == null) {
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException("Required path variable '" + name + "' of type " + type.getName() + " is not present");
+            }
+            return null;
+        }
+        return converter.convert(value.indexOf('%') < 0 ? value : decode(value));
+    }
+
+    /**
+     * 按 UTF-8 解码 %XX，不处理 +
+     */
+    static String decode(String value) {
+        byte[] bytes = new byte[value.length() * 3];
+        int length = 0;
+        int i = 0;
+        while (i < value.length()) {
+            if (value.charAt(i) == '%') {
+                if (i + 2 >= value.length()) {
+                    throw new IllegalArgumentException("Incomplete escape sequence in path variable: " + value);
+                }
+                int high = Character.digit(value.charAt(i + 1), 16);
+                int low = Character.digit(value.charAt(i + 2), 16);
+                if (high < 0 || low < 0) {
+                    throw new IllegalArgumentException("Illegal escape sequence in path variable: " + value);
+                }
+                bytes[length++] = (byte) ((high << 4) | low);
+                i += 3;
+            } else {
+                //连续的未编码字符整段转成 UTF-8，避免拆开代理对
+                int end = value.indexOf('%', i);
+                end = end < 0 ? value.length() : end;
+                byte[] encoded = value.substring(i, end).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(encoded, 0, bytes, length, encoded.length);
+                length += encoded.length;
+                i = end;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getVariableIndex() {
+        return variableIndex;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+}
@@ -0,0 +1,22 @@
+package com.tianhy.mvcframework.bind;
+
+/**
+ * @Desc: 请求体超过允许的最大字节数，读取过程中一旦超过就抛出，不会先把请求体读完
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class PayloadTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long maxSize;
+
+    public PayloadTooLargeException(long maxSize) {
+        super("Request body exceeds the maximum size of " + maxSize + " bytes");
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,239 @@
+package com.tianhy.mvcframework.bind;
+
+import com.tianhy.mvcframework.annotation.MyRequestBody;
+import org.nutz.json.Json;
+import org.nutz.lang.Lang;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @Desc: @MyRequestBody 形参的绑定器
+ * <p>
+ * 直接从 req.getInputStream() 边读边解析，不经过 getParameterMap()，也不先把请求体读成字符串：
+ * JSON 交给 nutz 从 Reader 解析成形参类型；application/x-www-form-urlencoded 逐个字符切分成键值对，
+ * 再转成 Map 或 POJO；形参是 String 时取整个请求体文本。
+ * 形参是 Iterator/Stream 时只接受 JSON 数组，返回惰性的迭代器，controller 取一个元素才解析一个元素。
+ * 读取时按字节数限制请求体大小，Content-Length 已经超过上限时不读直接拒绝。
+ * 请求体被读走之后，容器不会再从请求体里解析表单参数，同一个方法上的 @MyRequestParam 只能取到查询串中的参数。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class RequestBodyBinder implements ArgumentBinder {
+
+    /**
+     * 配置项：请求体最大字节数，默认 10MB，小于 0 不限制；@MyRequestBody(maxSize) 可以单独覆盖
+     */
+    public static final String MAX_SIZE_PROPERTY = "request.body.maxSize";
+
+    public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+    /**
+     * 形参类型
+     */
+    private final Class<?> type;
+
+    private final Type genericType;
+
+    private final boolean required;
+
+    private final long maxSize;
+
+    /**
+     * 形参是 Iterator 或 Stream，按元素惰性解析
+     */
+    private final boolean lazy;
+
+    /**
+     * 惰性解析时的元素类型
+     */
+    private final Type elementType;
+
+    public RequestBodyBinder(Class<?> type, Type genericType, MyRequestBody annotation, long defaultMaxSize) {
+        this.type = type;
+        this.genericType = genericType;
+        this.required = annotation.required();
+        this.maxSize = annotation.maxSize() >= 0 ? annotation.maxSize() : defaultMaxSize;
+        this.lazy = type == Iterator.class || type == Stream.class;
+        this.elementType = lazy ? typeArgument(genericType, 0) : null;
+    }
+
+    /**
+     * 读取请求体并转换成形参类型
+     *
+     * @return 转换后的值，请求体为空且不是必填时返回 null
+     * @throws PayloadTooLargeException 请求体超过最大字节数
+     * @throws IllegalArgumentException 必填的请求体为空，或请求体格式不对
+     */
+    @Override
+    public Object bind(HttpServletRequest req, HttpServletResponse resp, String[] pathVariables) throws IOException {
+        long length = req.getContentLengthLong();
+        if (maxSize >= 0 && length > maxSize) {
+            throw new PayloadTooLargeException(maxSize);
+        }
+        String contentType = req.getContentType();
+        boolean form = contentType != null && contentType.regionMatches(true, 0, FORM_CONTENT_TYPE, 0, FORM_CONTENT_TYPE.length());
+        String encoding = req.getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+
+        BodyReader reader = BodyReader.acquire(req.getInputStream(), charset, maxSize);
+        if (lazy) {
+            if (form) {
+                reader.release();
+                throw new IllegalArgumentException("Only JSON array bodies can be bound to " + type.getName());
+            }
+            if (required && reader.peekNonWhitespace() < 0) {
+                reader.release();
+                throw missing();
+            }
+            Iterator<Object> iterator = new JsonArrayIterator<>(reader, elementType);
+            if (type == Iterator.class) {
+                return iterator;
+            }
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+        }
+        try {
+            if (type == String.class) {
+                return readText(reader);
+            }
+            if (reader.peekNonWhitespace() < 0) {
+                if (required) {
+                    throw missing();
+                }
+                return null;
+            }
+            if (form) {
+                return bindForm(reader, charset);
+            }
+            return Json.fromJson(genericType, reader);
+        } finally {
+            reader.release();
+        }
+    }
+
+    private Object readText(BodyReader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[1024];
+        int n;
+        while ((n = reader.read(buffer, 0, buffer.length)) >= 0) {
+            sb.append(buffer, 0, n);
+        }
+        if (sb.length() == 0) {
+            if (required) {
+                throw missing();
+            }
+            return null;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 表单请求体转成 Map 或 POJO
+     */
+    private Object bindForm(BodyReader reader, Charset charset) throws IOException {
+        Map<String, List<String>> fields = parseForm(reader, charset);
+        if (Map.class.isAssignableFrom(type)) {
+            Type valueType = typeArgument(genericType, 1);
+            Class<?> valueClass = valueType instanceof ParameterizedType
+                    ? (Class<?>) ((ParameterizedType) valueType).getRawType()
+                    : valueType instanceof Class ? (Class<?>) valueType : Object.class;
+            Map<String, Object> map = new LinkedHashMap<>(fields.size() * 2);
+            for (Map.Entry<String, List<String>> entry : fields.entrySet()) {
+                List<String> values = entry.getValue();
+                if (valueClass == String[].class) {
+                    map.put(entry.getKey(), values.toArray(new String[0]));
+                } else if (Collection.class.isAssignableFrom(valueClass)) {
+                    map.put(entry.getKey(), values);
+                } else {
+                    map.put(entry.getKey(), values.get(0));
+                }
+            }
+            return map;
+        }
+        //POJO：同名的多个值作为数组交给 nutz 按字段类型转换
+        Map<String, Object> map = new HashMap<>(fields.size() * 2);
+        for (Map.Entry<String, List<String>> entry : fields.entrySet()) {
+            List<String> values = entry.getValue();
+            map.put(entry.getKey(), values.size() == 1 ? values.get(0) : values.toArray(new String[0]));
+        }
+        return Lang.map2Object(map, type);
+    }
+
+    /**
+     * 按 & 和 = 切分 application/x-www-form-urlencoded，只有包含 % 或 + 的部分才解码
+     */
+    static Map<String, List<String>> parseForm(BodyReader reader, Charset charset) throws IOException {
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        StringBuilder name = new StringBuilder();
+        StringBuilder value = new StringBuilder();
+        StringBuilder current = name;
+        int c;
+        do {
+            c = reader.read();
+            if (c == '&' || c < 0) {
+                if (name.length() > 0) {
+                    fields.computeIfAbsent(decode(name, charset), k -> new ArrayList<>(1)).add(decode(value, charset));
+                }
+                name.setLength(0);
+                value.setLength(0);
+                current = name;
+            } else if (c == '=' && current == name) {
+                current = value;
+            } else {
+                current.append((char) c);
+            }
+        } while (c >= 0);
+        return fields;
+    }
+
+    private static String decode(StringBuilder sb, Charset charset) throws UnsupportedEncodingException {
+        String s = sb.toString();
+        if (s.indexOf('%') < 0 && s.indexOf('+') < 0) {
+            return s;
+        }
+        try {
+            return URLDecoder.decode(s, charset.name());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Illegal form field '" + s + "'", e);
+        }
+    }
+
+    private IllegalArgumentException missing() {
+        return new IllegalArgumentException("Required request body of type " + type.getName() + " is missing");
+    }
+
+    private static Type typeArgument(Type genericType, int i) {
+        if (genericType instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) genericType).getActualTypeArguments();
+            if (i < args.length && !(args[i] instanceof WildcardType)) {
+                return args[i];
+            }
+        }
+        return Object.class;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,84 @@
+package com.tianhy.mvcframework.bind;
+
+import com.tianhy.mvcframework.convert.ConversionService;
+import com.tianhy.mvcframework.convert.Converter;
+import com.tianhy.mvcframework.convert.MultiValueConverter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * @Desc: 单个 @MyRequestHeader 形参的绑定器，和 RequestParamBinder 一样在初始化时解析好转换器
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class RequestHeaderBinder implements ArgumentBinder {
+
+    /**
+     * 请求头名
+     */
+    private final String name;
+
+    /**
+     * 形参类型
+     */
+    private final Class<?> type;
+
+    /**
+     * 形参是数组或集合时，把同名请求头的所有值一起转换
+     */
+    private final boolean multiValued;
+
+    private final Converter<?> converter;
+
+    private final MultiValueConverter multiValueConverter;
+
+    public RequestHeaderBinder(String name, Class<?> type, Type genericType, ConversionService conversionService) {
+        this.name = name;
+        this.type = type;
+        this.multiValued = conversionService.isMultiValued(type);
+        this.converter = multiValued ? null : conversionService.getConverter(type);
+        this.multiValueConverter = multiValued ? conversionService.getMultiValueConverter(type, genericType) : null;
+    }
+
+    /**
+     * 取出请求头并转换成形参类型
+     *
+     * @return 转换后的值，没有该请求头时返回 null
+     * @throws IllegalArgumentException 基本类型的形参缺少请求头
+     */
+    @Override
+    public Object bind(HttpServletRequest req, HttpServletResponse resp, String[] pathVariables) {
+        if (multiValued) {
+            Enumeration<String> headers = req.getHeaders(name);
+            if (headers == null || !headers.hasMoreElements()) {
+                return null;
+            }
+            List<String> values = new ArrayList<>(2);
+            while (headers.hasMoreElements()) {
+                values.add(headers.nextElement());
+            }
+            return multiValueConverter.convert(values.toArray(new String[0]));
+        }
+        String value = req.getHeader(name);
+        if (value == null) {
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException("Required header '" + name + "' of type " + type.getName() + " is not present");
+            }
+            return null;
+        }
+        return converter.convert(value);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+}
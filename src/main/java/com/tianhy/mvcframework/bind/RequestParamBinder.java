@@ -0,0 +1,81 @@
+package com.tianhy.mvcframework.bind;
+
+import com.tianhy.mvcframework.convert.ConversionService;
+import com.tianhy.mvcframework.convert.Converter;
+import com.tianhy.mvcframework.convert.MultiValueConverter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Type;
+
+/**
+ * @Desc: 单个 @MyRequestParam 形参的绑定器
+ * <p>
+ * 在 Handler 初始化时按参数名和形参类型预先算好，并解析出对应的转换器，
+ * 请求时只按名字取这一个参数，直接调用转换器，不再遍历整个 getParameterMap()。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class RequestParamBinder implements ArgumentBinder {
+
+    /**
+     * 请求参数名，即 @MyRequestParam 的 value
+     */
+    private final String name;
+
+    /**
+     * 形参类型
+     */
+    private final Class<?> type;
+
+    /**
+     * 形参是数组或集合时，把同名参数的所有值一起转换
+     */
+    private final boolean multiValued;
+
+    private final Converter<?> converter;
+
+    private final MultiValueConverter multiValueConverter;
+
+    public RequestParamBinder(String name, Class<?> type, Type genericType, ConversionService conversionService) {
+        this.name = name;
+        this.type = type;
+        this.multiValued = conversionService.isMultiValued(type);
+        this.converter = multiValued ? null : conversionService.getConverter(type);
+        this.multiValueConverter = multiValued ? conversionService.getMultiValueConverter(type, genericType) : null;
+    }
+
+    /**
+     * 取出请求参数并转换成形参类型
+     *
+     * @return 转换后的值，请求中没有该参数时返回 null
+     * @throws IllegalArgumentException 基本类型的形参缺少参数
+     */
+    @Override
+    public Object bind(HttpServletRequest req, HttpServletResponse resp, String[] pathVariables) {
+        if (multiValued) {
+            String[] values = req.getParameterValues(name);
+            return values == null ? null : multiValueConverter.convert(values);
+        }
+        String value = req.getParameter(name);
+        if (value == null) {
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException("Required parameter '" + name + "' of type " + type.getName() + " is not present");
+            }
+            return null;
+        }
+        return converter.convert(value);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public boolean isMultiValued() {
+        return multiValued;
+    }
+}
@@ -0,0 +1,289 @@
+package com.tianhy.mvcframework.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @Desc: 有界的并发缓存：条数/权重上限，写入后过期(TTL)，近似 LRU 淘汰
+ * <p>
+ * 数据放在 ConcurrentHashMap 中，读不加锁；访问顺序记录在一条侵入式双向链表上，由一把锁保护。
+ * 命中时只 tryLock 调整顺序，拿不到锁就跳过(高并发下是近似的 LRU)，读路径不会阻塞也不分配对象。
+ * <p>
+ * get(key, loader) 带击穿保护：同一个键并发未命中时只有一个线程执行 loader，其余线程等待它的结果；
+ * loader 抛出的异常会传给所有等待者，不会被缓存；loader 返回 null 时不缓存。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class BoundedCache<K, V> {
+
+    /**
+     * 计算缓存项的权重
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        long weigh(K key, V value);
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final Weigher<? super K, ? super V> weigher;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    /**
+     * 访问顺序链表的哨兵：head.next 最久未访问，head.prev 最近访问
+     */
+    private final Node<K, V> head = new Node<>(null, null, 0, 0);
+    private long totalWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxEntries 最大条数
+     * @param maxWeight  最大总权重，小于等于0不限制
+     * @param ttlMillis  写入后过期时间，小于等于0不过期
+     * @param weigher    权重计算，为 null 时每项权重为 0
+     */
+    public BoundedCache(String name, int maxEntries, long maxWeight, long ttlMillis, Weigher<? super K, ? super V> weigher) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000L : 0;
+        this.weigher = weigher;
+        head.prev = head;
+        head.next = head;
+    }
+
+    public BoundedCache(String name, int maxEntries, long ttlMillis) {
+        this(name, maxEntries, 0, ttlMillis, null);
+    }
+
+    /**
+     * 只查缓存，不加载
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            if (!isExpired(node)) {
+                hits.increment();
+                onAccess(node);
+                return node.value;
+            }
+            expire(node);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 查缓存，未命中时加载
+     */
+    public V get(K key, Callable<? extends V> loader) throws Exception {
+        V value = getIfPresent(key);
+        return value != null ? value : load(key, loader);
+    }
+
+    /**
+     * getIfPresent 未命中之后加载：同一个键只有一个线程执行 loader，其余线程等待结果
+     * <p>
+     * 调用方先 getIfPresent，命中时就不需要为 loader 分配对象
+     */
+    public V load(K key, Callable<? extends V> loader) throws Exception {
+        V value;
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            //已经有线程在加载同一个键
+            return await(existing);
+        }
+        try {
+            //加载者拿到占位之前，别人可能刚好加载完
+            Node<K, V> node = data.get(key);
+            if (node != null && !isExpired(node)) {
+                value = node.value;
+            } else {
+                value = loader.call();
+                if (value != null) {
+                    put(key, value);
+                }
+            }
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    public void put(K key, V value) {
+        long weight = weigher != null ? weigher.weigh(key, value) : 0;
+        if (maxWeight > 0 && weight > maxWeight) {
+            invalidate(key);
+            return;
+        }
+        Node<K, V> node = new Node<>(key, value, weight, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0);
+        evictionLock.lock();
+        try {
+            Node<K, V> previous = data.put(key, node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            linkLast(node);
+            evictIfNeeded();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        evictionLock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            data.clear();
+            head.prev = head;
+            head.next = head;
+            totalWeight = 0;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(name, hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), data.size(), totalWeight);
+    }
+
+    private void onAccess(Node<K, V> node) {
+        //已经在链表尾部(最近访问)的热点数据不需要调整，也就不用碰锁；这里不加锁读 head.prev 只是个优化判断
+        if (head.prev != node && evictionLock.tryLock()) {
+            try {
+                //可能已经被其他线程移除
+                if (node.prev != null) {
+                    unlink(node);
+                    linkLast(node);
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node) {
+        return node.expireAt != 0 && node.expireAt - System.nanoTime() <= 0;
+    }
+
+    private void expire(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            if (data.remove(node.key, node)) {
+                unlink(node);
+                expirations.increment();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 持有 evictionLock 时调用：先清理链表头部过期的，再按 LRU 淘汰到满足上限
+     */
+    private void evictIfNeeded() {
+        while (head.next != head && (data.size() > maxEntries || maxWeight > 0 && totalWeight > maxWeight)) {
+            Node<K, V> eldest = head.next;
+            data.remove(eldest.key, eldest);
+            unlink(eldest);
+            if (isExpired(eldest)) {
+                expirations.increment();
+            } else {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void linkLast(Node<K, V> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+        totalWeight += node.weight;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.prev == null) {
+            return;
+        }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        totalWeight -= node.weight;
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final long weight;
+        /**
+         * System.nanoTime() 的过期时刻，0 表示不过期
+         */
+        private final long expireAt;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.tianhy.mvcframework.cache;
+
+import com.tianhy.mvcframework.annotation.MyCacheEvict;
+import com.tianhy.mvcframework.annotation.MyCacheable;
+import com.tianhy.mvcframework.aop.MethodInterceptor;
+import com.tianhy.mvcframework.aop.MethodInvocation;
+import com.tianhy.mvcframework.beans.BeansException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Desc: @MyCacheable / @MyCacheEvict 的拦截器，放在调用链的最内层
+ * <p>
+ * 注解在创建时解析好，每个方法一个实例；@MyCacheable 按参数值缓存返回值(null 也缓存)，
+ * @MyCacheEvict 在方法正常返回后移除与参数相同的键或清空整个缓存。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class CacheInterceptor implements MethodInterceptor {
+
+    /**
+     * 方法返回 null 时缓存的占位值
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    private final BoundedCache<Object, Object> cache;
+    private final List<BoundedCache<Object, Object>> evictCaches;
+    private final boolean evictAll;
+
+    private CacheInterceptor(BoundedCache<Object, Object> cache, List<BoundedCache<Object, Object>> evictCaches, boolean evictAll) {
+        this.cache = cache;
+        this.evictCaches = evictCaches;
+        this.evictAll = evictAll;
+    }
+
+    /**
+     * 登记类上 @MyCacheable 方法声明的缓存；在创建任何bean之前调用，
+     * 这样 @MyCacheEvict 不依赖声明缓存的bean是否已经创建
+     */
+    public static void declareCaches(Class<?> beanClass, CacheManager cacheManager) {
+        for (Method method : beanClass.getMethods()) {
+            MyCacheable cacheable = method.getAnnotation(MyCacheable.class);
+            if (cacheable != null) {
+                cacheManager.getCache(cacheName(method, cacheable), cacheable.maxEntries(), cacheable.ttl());
+            }
+        }
+    }
+
+    /**
+     * 检查类上 @MyCacheEvict 引用的缓存都已声明，所有缓存登记完之后调用，延迟创建的bean也在启动时报错
+     */
+    public static void checkEvictCaches(Class<?> beanClass, CacheManager cacheManager) {
+        for (Method method : beanClass.getMethods()) {
+            MyCacheEvict evict = method.getAnnotation(MyCacheEvict.class);
+            if (evict != null) {
+                for (String name : evict.value()) {
+                    evictCache(method, name, cacheManager);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param method 目标类上的方法
+     * @return 方法上没有缓存注解时返回 null
+     */
+    public static CacheInterceptor forMethod(Method method, CacheManager cacheManager) {
+        MyCacheable cacheable = method.getAnnotation(MyCacheable.class);
+        MyCacheEvict evict = method.getAnnotation(MyCacheEvict.class);
+        if (cacheable == null && evict == null) {
+            return null;
+        }
+        BoundedCache<Object, Object> cache = null;
+        if (cacheable != null) {
+            if (method.getReturnType() == void.class) {
+                throw new BeansException("@MyCacheable method must return a value: " + method);
+            }
+            cache = cacheManager.getCache(cacheName(method, cacheable), cacheable.maxEntries(), cacheable.ttl());
+        }
+        List<BoundedCache<Object, Object>> evictCaches = new ArrayList<>();
+        if (evict != null) {
+            for (String name : evict.value()) {
+                evictCaches.add(evictCache(method, name, cacheManager));
+            }
+        }
+        return new CacheInterceptor(cache, evictCaches, evict != null && evict.allEntries());
+    }
+
+    private static BoundedCache<Object, Object> evictCache(Method method, String name, CacheManager cacheManager) {
+        BoundedCache<Object, Object> evictCache = cacheManager.getCache(name);
+        if (evictCache == null) {
+            throw new BeansException("Unknown cache '" + name + "' in @MyCacheEvict on " + method
+                    + ", it is not declared by any @MyCacheable method");
+        }
+        return evictCache;
+    }
+
+    private static String cacheName(Method method, MyCacheable cacheable) {
+        return cacheable.value().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName() : cacheable.value();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] args = invocation.getArguments();
+        Object result;
+        if (cache != null) {
+            Object key = MethodArgumentsKey.of(args);
+            Object cached = cache.getIfPresent(key);
+            if (cached == null) {
+                cached = cache.load(key, () -> {
+                    Object value = proceed(invocation);
+                    return value == null ? NULL_VALUE : value;
+                });
+            }
+            result = cached == NULL_VALUE ? null : cached;
+        } else {
+            result = invocation.proceed();
+        }
+        for (BoundedCache<Object, Object> evictCache : evictCaches) {
+            if (evictAll) {
+                evictCache.invalidateAll();
+            } else {
+                evictCache.invalidate(MethodArgumentsKey.of(args));
+            }
+        }
+        return result;
+    }
+
+    private static Object proceed(MethodInvocation invocation) throws Exception {
+        try {
+            return invocation.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
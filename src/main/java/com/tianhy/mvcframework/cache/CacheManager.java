@@ -0,0 +1,37 @@
+package com.tianhy.mvcframework.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Desc: 按名字管理 @MyCacheable 使用的缓存，每次refresh一份
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class CacheManager {
+
+    private final ConcurrentHashMap<String, BoundedCache<Object, Object>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * 取缓存，不存在时按给定的配置创建
+     */
+    public BoundedCache<Object, Object> getCache(String name, int maxEntries, long ttlMillis) {
+        return caches.computeIfAbsent(name, k -> new BoundedCache<>(k, maxEntries, ttlMillis));
+    }
+
+    /**
+     * @return 不存在时返回 null
+     */
+    public BoundedCache<Object, Object> getCache(String name) {
+        return caches.get(name);
+    }
+
+    public List<CacheStats> getStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        for (BoundedCache<Object, Object> cache : caches.values()) {
+            stats.add(cache.getStats());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,46 @@
+package com.tianhy.mvcframework.cache;
+
+import lombok.Getter;
+
+/**
+ * @Desc: 缓存计数的快照
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Getter
+public class CacheStats {
+    private final String name;
+    private final long hitCount;
+    private final long missCount;
+    /**
+     * 超出条数/权重上限被淘汰的次数
+     */
+    private final long evictionCount;
+    /**
+     * 过期被移除的次数
+     */
+    private final long expirationCount;
+    private final long size;
+    private final long weight;
+
+    public CacheStats(String name, long hitCount, long missCount, long evictionCount, long expirationCount, long size, long weight) {
+        this.name = name;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount
+                + ", expirations=" + expirationCount + ", size=" + size + ", weight=" + weight + "}";
+    }
+}
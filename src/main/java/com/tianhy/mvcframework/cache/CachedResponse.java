@@ -0,0 +1,69 @@
+package com.tianhy.mvcframework.cache;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * @Desc: 捕获下来的一次响应，可以反复回放到新的响应上
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class CachedResponse {
+
+    private final int status;
+    private final String contentType;
+    private final String characterEncoding;
+    private final String[][] headers;
+    private final byte[] body;
+    private final boolean storable;
+    private final boolean passedThrough;
+
+    CachedResponse(int status, String contentType, String characterEncoding, String[][] headers,
+                   byte[] body, boolean storable, boolean passedThrough) {
+        this.status = status;
+        this.contentType = contentType;
+        this.characterEncoding = characterEncoding;
+        this.headers = headers;
+        this.body = body;
+        this.storable = storable;
+        this.passedThrough = passedThrough;
+    }
+
+    /**
+     * 2xx 且没有写 Cookie / sendError / sendRedirect
+     */
+    public boolean isStorable() {
+        return storable;
+    }
+
+    /**
+     * 大致的内存占用，用于缓存的权重
+     */
+    public long weight() {
+        long weight = body.length + 64;
+        for (String[] header : headers) {
+            weight += header[0].length() + header[1].length() + 16;
+        }
+        return weight;
+    }
+
+    public void writeTo(HttpServletResponse resp) throws IOException {
+        if (passedThrough) {
+            return;
+        }
+        resp.setStatus(status);
+        if (characterEncoding != null) {
+            resp.setCharacterEncoding(characterEncoding);
+        }
+        if (contentType != null) {
+            resp.setContentType(contentType);
+        }
+        for (String[] header : headers) {
+            resp.addHeader(header[0], header[1]);
+        }
+        resp.setContentLength(body.length);
+        if (body.length > 0) {
+            resp.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.tianhy.mvcframework.cache;
+
+import java.util.Arrays;
+
+/**
+ * @Desc: 以方法参数作为缓存键：无参方法共用一个键，单个参数直接用参数本身，多个参数按值(deepEquals)比较
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+final class MethodArgumentsKey {
+
+    static final Object EMPTY = new MethodArgumentsKey(new Object[0]);
+
+    private final Object[] args;
+    private final int hash;
+
+    private MethodArgumentsKey(Object[] args) {
+        this.args = args;
+        this.hash = Arrays.deepHashCode(args);
+    }
+
+    static Object of(Object[] args) {
+        if (args == null || args.length == 0) {
+            return EMPTY;
+        }
+        if (args.length == 1 && args[0] != null && !args[0].getClass().isArray()) {
+            return args[0];
+        }
+        return new MethodArgumentsKey(args.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof MethodArgumentsKey && hash == ((MethodArgumentsKey) o).hash
+                && Arrays.deepEquals(args, ((MethodArgumentsKey) o).args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,96 @@
+package com.tianhy.mvcframework.cache;
+
+import com.tianhy.mvcframework.annotation.MyResponseCache;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+
+/**
+ * @Desc: 一个handler方法的响应缓存(@MyResponseCache)
+ * <p>
+ * 键为 Accept 头和绑定好的参数值；未命中时用 CapturingResponseWrapper 执行handler并捕获响应，
+ * 可以缓存(2xx、没有 Cookie/重定向/错误)的结果放入缓存，然后回放到真实响应。
+ * 同一个键的并发未命中只执行一次handler；不可缓存的结果不会共享，等待者各自执行。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ResponseCache {
+
+    /**
+     * 在捕获的响应上执行handler
+     */
+    @FunctionalInterface
+    public interface ResponseProducer {
+        void produce(HttpServletResponse capturingResponse) throws Exception;
+    }
+
+    private final BoundedCache<Key, CachedResponse> cache;
+
+    public ResponseCache(String name, MyResponseCache config) {
+        this.cache = new BoundedCache<>(name, config.maxEntries(), config.maxBytes(), config.ttl(),
+                (key, response) -> response.weight());
+    }
+
+    /**
+     * @param keyValues 参与缓存键的参数值
+     */
+    public void handle(Object[] keyValues, HttpServletRequest req, HttpServletResponse resp, ResponseProducer producer) throws Exception {
+        Key key = new Key(req.getHeader("Accept"), keyValues);
+        CachedResponse[] own = new CachedResponse[1];
+        CachedResponse response = cache.get(key, () -> {
+            CachedResponse captured = capture(resp, producer);
+            own[0] = captured;
+            return captured.isStorable() ? captured : null;
+        });
+        if (response == null) {
+            //自己加载的不可缓存结果，或者等到的是别人的不可缓存结果(需要自己再执行一次)
+            response = own[0] != null ? own[0] : capture(resp, producer);
+        }
+        response.writeTo(resp);
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static CachedResponse capture(HttpServletResponse resp, ResponseProducer producer) throws Exception {
+        CapturingResponseWrapper wrapper = new CapturingResponseWrapper(resp);
+        producer.produce(wrapper);
+        return wrapper.toCachedResponse();
+    }
+
+    private static final class Key {
+        private final String accept;
+        private final Object[] values;
+        private final int hash;
+
+        private Key(String accept, Object[] values) {
+            this.accept = accept;
+            this.values = values;
+            this.hash = 31 * (accept == null ? 0 : accept.hashCode()) + Arrays.deepHashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && (accept == null ? other.accept == null : accept.equals(other.accept))
+                    && Arrays.deepEquals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
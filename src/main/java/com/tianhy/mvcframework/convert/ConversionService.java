@@ -0,0 +1,206 @@
+package com.tianhy.mvcframework.convert;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Desc: 类型转换注册表
+ * <p>
+ * 按目标类型登记 Converter，Handler 初始化时为每个形参解析出一个转换器引用并保存下来，
+ * 请求时直接调用这个引用，不再查表，也不再走 if-else 判断类型。
+ * 找不到转换器的类型在初始化时就报错，而不是把原始字符串交给 Method.invoke。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ConversionService {
+
+    private final Map<Class<?>, Converter<?>> converters = new ConcurrentHashMap<>();
+
+    public ConversionService() {
+        registerDefaults();
+    }
+
+    /**
+     * 注册自定义转换器，同一类型后注册的覆盖先注册的
+     */
+    public <T> void addConverter(Class<T> type, Converter<? extends T> converter) {
+        converters.put(type, converter);
+        //基本类型与包装类型共用同一个转换器
+        Class<?> primitive = primitiveOf(type);
+        if (primitive != null) {
+            converters.put(primitive, converter);
+        }
+    }
+
+    /**
+     * 注册自定义转换器，目标类型从实现类的泛型参数 Converter&lt;T&gt; 中解析
+     */
+    @SuppressWarnings("unchecked")
+    public void addConverter(Converter<?> converter) {
+        Class<?> type = resolveTargetType(converter.getClass());
+        if (type == null) {
+            throw new IllegalArgumentException("Can not resolve target type of converter " + converter.getClass().getName());
+        }
+        addConverter((Class<Object>) type, (Converter<Object>) converter);
+    }
+
+    public boolean canConvert(Class<?> type) {
+        return converters.containsKey(type) || type.isEnum();
+    }
+
+    /**
+     * 解析单值转换器
+     *
+     * @throws IllegalStateException 没有对应的转换器
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Converter<?> getConverter(Class<?> type) {
+        Converter<?> converter = converters.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            Converter<?> enumConverter = source -> Enum.valueOf(enumType, source.trim());
+            converters.put(type, enumConverter);
+            return enumConverter;
+        }
+        throw new IllegalStateException("No converter found for type " + type.getName());
+    }
+
+    /**
+     * 数组、List、Set、Collection 类型的形参按多值处理
+     */
+    public boolean isMultiValued(Class<?> type) {
+        return type.isArray() || Collection.class.isAssignableFrom(type);
+    }
+
+    /**
+     * 解析多值转换器
+     *
+     * @param type        形参类型
+     * @param genericType 形参的泛型类型，用来拿集合的元素类型，拿不到时按 String 处理
+     */
+    public MultiValueConverter getMultiValueConverter(Class<?> type, Type genericType) {
+        if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            if (componentType == String.class) {
+                return values -> values;
+            }
+            Converter<?> element = getConverter(componentType);
+            return values -> {
+                Object array = Array.newInstance(componentType, values.length);
+                for (int i = 0; i < values.length; i++) {
+                    Array.set(array, i, element.convert(values[i]));
+                }
+                return array;
+            };
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            Converter<?> element = getConverter(elementType(genericType));
+            boolean set = Set.class.isAssignableFrom(type);
+            return values -> {
+                Collection<Object> collection = set ? new LinkedHashSet<>(values.length * 2) : new ArrayList<>(values.length);
+                for (String value : values) {
+                    collection.add(element.convert(value));
+                }
+                return collection;
+            };
+        }
+        throw new IllegalStateException("Type " + type.getName() + " is not multi-valued");
+    }
+
+    private void registerDefaults() {
+        addConverter(String.class, source -> source);
+        addConverter(Integer.class, source -> Integer.valueOf(source.trim()));
+        addConverter(Long.class, source -> Long.valueOf(source.trim()));
+        addConverter(Short.class, source -> Short.valueOf(source.trim()));
+        addConverter(Byte.class, source -> Byte.valueOf(source.trim()));
+        addConverter(Double.class, source -> Double.valueOf(source.trim()));
+        addConverter(Float.class, source -> Float.valueOf(source.trim()));
+        addConverter(Boolean.class, ConversionService::toBoolean);
+        addConverter(Character.class, ConversionService::toCharacter);
+        addConverter(BigDecimal.class, source -> new BigDecimal(source.trim()));
+        addConverter(BigInteger.class, source -> new BigInteger(source.trim()));
+        addConverter(LocalDate.class, source -> LocalDate.parse(source.trim()));
+        addConverter(LocalTime.class, source -> LocalTime.parse(source.trim()));
+        addConverter(LocalDateTime.class, source -> LocalDateTime.parse(source.trim()));
+        addConverter(OffsetDateTime.class, source -> OffsetDateTime.parse(source.trim()));
+        addConverter(ZonedDateTime.class, source -> ZonedDateTime.parse(source.trim()));
+        addConverter(Instant.class, source -> Instant.parse(source.trim()));
+        addConverter(Duration.class, source -> Duration.parse(source.trim()));
+        addConverter(UUID.class, source -> UUID.fromString(source.trim()));
+    }
+
+    private static Boolean toBoolean(String source) {
+        String s = source.trim();
+        if ("true".equalsIgnoreCase(s) || "on".equalsIgnoreCase(s) || "yes".equalsIgnoreCase(s) || "1".equals(s)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(s) || "off".equalsIgnoreCase(s) || "no".equalsIgnoreCase(s) || "0".equals(s)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Invalid boolean value '" + source + "'");
+    }
+
+    private static Character toCharacter(String source) {
+        if (source.length() != 1) {
+            throw new IllegalArgumentException("Can not convert '" + source + "' to char");
+        }
+        return source.charAt(0);
+    }
+
+    private static Class<?> primitiveOf(Class<?> type) {
+        if (type == Integer.class) {
+            return int.class;
+        } else if (type == Long.class) {
+            return long.class;
+        } else if (type == Short.class) {
+            return short.class;
+        } else if (type == Byte.class) {
+            return byte.class;
+        } else if (type == Double.class) {
+            return double.class;
+        } else if (type == Float.class) {
+            return float.class;
+        } else if (type == Boolean.class) {
+            return boolean.class;
+        } else if (type == Character.class) {
+            return char.class;
+        }
+        return null;
+    }
+
+    private static Class<?> elementType(Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            Type arg = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (arg instanceof Class) {
+                return (Class<?>) arg;
+            }
+            if (arg instanceof ParameterizedType) {
+                return (Class<?>) ((ParameterizedType) arg).getRawType();
+            }
+        }
+        return String.class;
+    }
+
+    private static Class<?> resolveTargetType(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Type i : c.getGenericInterfaces()) {
+                if (i instanceof ParameterizedType && ((ParameterizedType) i).getRawType() == Converter.class) {
+                    Type arg = ((ParameterizedType) i).getActualTypeArguments()[0];
+                    if (arg instanceof Class) {
+                        return (Class<?>) arg;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tianhy.mvcframework.convert;
+
+/**
+ * @Desc: 字符串到目标类型的转换器
+ * <p>
+ * 从url获取到的参数都是string类型，http基于字符串。
+ * 用户可以实现这个接口并加上 @MyService，容器初始化时会按泛型参数注册到 ConversionService。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@FunctionalInterface
+public interface Converter<T> {
+
+    T convert(String source);
+}
@@ -0,0 +1,12 @@
+package com.tianhy.mvcframework.convert;
+
+/**
+ * @Desc: 同名多值参数(数组、List、Set)的转换器
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@FunctionalInterface
+public interface MultiValueConverter {
+
+    Object convert(String[] values);
+}
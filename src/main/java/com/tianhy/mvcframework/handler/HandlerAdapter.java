@@ -0,0 +1,22 @@
+package com.tianhy.mvcframework.handler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @Desc: 调用某一类 handler 并写响应
+ * <p>
+ * @MyRequestMapping 方法由分发器内置处理(绑定计划、调用器、响应缓存、指标都在初始化时算好)；
+ * 自定义 HandlerMapping 返回的其他类型的 handler，按容器中的注册顺序找第一个 supports 的实现来处理。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface HandlerAdapter {
+
+    boolean supports(Object handler);
+
+    /**
+     * @param pathVariables 映射取出的路径变量，没有任何映射带变量时为 null
+     */
+    void handle(HttpServletRequest req, HttpServletResponse resp, Object handler, String[] pathVariables) throws Exception;
+}
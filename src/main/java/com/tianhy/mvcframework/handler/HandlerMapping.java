@@ -0,0 +1,27 @@
+package com.tianhy.mvcframework.handler;
+
+/**
+ * @Desc: 按请求路径找 handler
+ * <p>
+ * 内置的 RouteHandlerMapping 管理 @MyRequestMapping 方法；容器中实现了该接口的bean排在它之后，
+ * 内置映射没有命中时按顺序询问，返回的 handler 交给能处理它的 HandlerAdapter。
+ * 实现需要线程安全，请求线程会并发调用 getHandler。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface HandlerMapping {
+
+    /**
+     * @param lookupPath    去掉contextPath并规范化之后的请求路径
+     * @param pathVariables 按模板顺序填入路径变量的原始值，长度不小于所有映射的 getMaxVariables()；为 null 时不取变量
+     * @return 匹配到的 handler，没有则返回 null
+     */
+    Object getHandler(String lookupPath, String[] pathVariables);
+
+    /**
+     * 路由中路径变量个数的最大值，分发器按它分配存放变量的数组
+     */
+    default int getMaxVariables() {
+        return 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tianhy.mvcframework.handler;
+
+import com.tianhy.mvcframework.router.RouteTrie;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Desc: 路由表：全字面量的路由放在一个 HashMap 里按整条路径精确匹配，其余(路径变量、正则)放在路由树里
+ * <p>
+ * 查找时先查 HashMap，一次哈希就能命中最常见的固定路径；没有命中才去路由树逐段匹配。
+ * 路由树同样是字面量优先，所以先查精确表不会改变匹配结果。
+ * 初始化时注册，之后只读，可以被多个请求线程共享。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class RouteHandlerMapping<T> implements HandlerMapping {
+
+    private final Map<String, T> exactRoutes = new HashMap<>();
+
+    private final RouteTrie<T> patternRoutes = new RouteTrie<>();
+
+    /**
+     * 注册路由
+     *
+     * @param route 规范化之后的路由，以 / 开头
+     * @throws IllegalStateException 同一条路由重复注册
+     */
+    public void register(String route, T handler) {
+        if (RouteTrie.isLiteralRoute(route)) {
+            T previous = exactRoutes.putIfAbsent(route, handler);
+            if (previous != null) {
+                throw new IllegalStateException("Ambiguous mapping: " + route + " is already mapped to " + previous);
+            }
+            return;
+        }
+        patternRoutes.add(route, handler);
+    }
+
+    @Override
+    public T getHandler(String lookupPath, String[] pathVariables) {
+        T handler = exactRoutes.get(lookupPath);
+        if (handler != null) {
+            return handler;
+        }
+        return patternRoutes.lookup(lookupPath, pathVariables);
+    }
+
+    @Override
+    public int getMaxVariables() {
+        return patternRoutes.getMaxVariables();
+    }
+
+    public int size() {
+        return exactRoutes.size() + patternRoutes.size();
+    }
+
+    public int getExactRouteCount() {
+        return exactRoutes.size();
+    }
+}
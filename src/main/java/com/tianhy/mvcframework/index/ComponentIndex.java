@@ -0,0 +1,169 @@
+package com.tianhy.mvcframework.index;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @Desc: 编译期生成的组件索引
+ * <p>
+ * 由 ComponentIndexProcessor 在编译时写入 META-INF/mvcframework.components，
+ * 启动时直接读取，省去类路径扫描和注解反射。每行一条记录，字段用制表符分隔：
+ * <pre>
+ * component  类名  controller|service  beanName  scope  lazy  接口1,接口2
+ * </pre>
+ * 索引按类路径根目录(目录或 jar)生效：只读取包含扫描包的那些根目录下的索引，
+ * 其中任何一个根目录没有索引时整体退回扫描，避免漏掉没有编译索引的类。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ComponentIndex {
+
+    public static final String INDEX_LOCATION = "META-INF/mvcframework.components";
+
+    public static final String STEREOTYPE_CONTROLLER = "controller";
+
+    public static final String STEREOTYPE_SERVICE = "service";
+
+    static final String COMPONENT = "component";
+
+    private static final int COMPONENT_COLUMNS = 7;
+
+    /**
+     * 类名 -> 组件，只包含扫描包下的类
+     */
+    private final Map<String, Component> components = new LinkedHashMap<>();
+
+    /**
+     * 包含扫描包、但没有索引的类路径根目录
+     */
+    private final List<String> unindexedRoots = new ArrayList<>();
+
+    private int indexedRoots;
+
+    /**
+     * 读取 basePackage 所在的每个类路径根目录下的索引
+     *
+     * @param basePackage 扫描包，如 com.tianhy.demo
+     * @throws IOException 索引文件读取失败或格式不对(比如旧版本处理器生成的)
+     */
+    public static ComponentIndex load(ClassLoader classLoader, String basePackage) throws IOException {
+        String packagePath = basePackage.replace('.', '/');
+        ComponentIndex index = new ComponentIndex();
+        Enumeration<URL> packageUrls = classLoader.getResources(packagePath);
+        while (packageUrls.hasMoreElements()) {
+            String location = packageUrls.nextElement().toString();
+            //包目录的 URL 去掉包路径就是所在的根目录，目录是 file:/x/classes/，jar 是 jar:file:/x.jar!/
+            int end = location.lastIndexOf(packagePath);
+            if (end < 0) {
+                index.unindexedRoots.add(location);
+                continue;
+            }
+            String root = location.substring(0, end);
+            try (InputStream is = new URL(root + INDEX_LOCATION).openStream()) {
+                index.read(is, basePackage);
+                index.indexedRoots++;
+            } catch (FileNotFoundException e) {
+                index.unindexedRoots.add(root);
+            }
+        }
+        return index;
+    }
+
+    private void read(InputStream is, String basePackage) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] cols = line.split("\t", -1);
+            if (!COMPONENT.equals(cols[0]) || cols.length != COMPONENT_COLUMNS) {
+                throw new IOException("Invalid component index line: " + line);
+            }
+            if (!cols[1].startsWith(basePackage + ".")) {
+                continue;
+            }
+            List<String> interfaces = cols[6].isEmpty() ? Collections.<String>emptyList() : Arrays.asList(cols[6].split(","));
+            components.put(cols[1], new Component(cols[1], cols[2], cols[3], cols[4], Boolean.parseBoolean(cols[5]), interfaces));
+        }
+    }
+
+    /**
+     * 包含扫描包的根目录都有索引时才能代替扫描
+     */
+    public boolean isComplete() {
+        return indexedRoots > 0 && unindexedRoots.isEmpty();
+    }
+
+    /**
+     * 有的根目录有索引、有的没有：多半是某个模块没有启用注解处理器
+     */
+    public boolean isPartial() {
+        return indexedRoots > 0 && !unindexedRoots.isEmpty();
+    }
+
+    public List<String> getUnindexedRoots() {
+        return Collections.unmodifiableList(unindexedRoots);
+    }
+
+    /**
+     * 类名 -> 组件，按索引中的顺序
+     */
+    public Map<String, Component> getComponents() {
+        return Collections.unmodifiableMap(components);
+    }
+
+    public static class Component {
+        private final String className;
+        /**
+         * controller 或 service
+         */
+        private final String stereotype;
+        private final String beanName;
+        private final String scope;
+        private final boolean lazy;
+        /**
+         * 按接口名登记的别名，框架扩展接口除外；controller 没有
+         */
+        private final List<String> interfaces;
+
+        public Component(String className, String stereotype, String beanName, String scope, boolean lazy, List<String> interfaces) {
+            this.className = className;
+            this.stereotype = stereotype;
+            this.beanName = beanName;
+            this.scope = scope;
+            this.lazy = lazy;
+            this.interfaces = interfaces;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getStereotype() {
+            return stereotype;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public boolean isLazy() {
+            return lazy;
+        }
+
+        public List<String> getInterfaces() {
+            return interfaces;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.tianhy.mvcframework.index;
+
+import com.tianhy.mvcframework.annotation.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @Desc: 编译期注解处理器，生成组件索引 META-INF/mvcframework.components
+ * <p>
+ * 处理 @MyController、@MyService，记录类名、beanName、作用域、是否延迟和按接口名登记的别名，
+ * 规则与 DispatcherServlet 从注解读取组件信息时保持一致，启动时按索引登记bean，不再反射读取注解。
+ * <p>
+ * 通过 META-INF/services 注册，业务工程依赖框架后 javac 自动发现；
+ * 框架本身编译时处理器还没有编译出来，需要用 -proc:none 编译。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@SupportedAnnotationTypes({
+        "com.tianhy.mvcframework.annotation.MyController",
+        "com.tianhy.mvcframework.annotation.MyService"})
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    private static final String FRAMEWORK_PACKAGE = "com.tianhy.mvcframework.";
+
+    /**
+     * 按类名排序，保证同样的源码生成同样的索引
+     */
+    private final Map<String, String> lines = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (Element e : roundEnv.getElementsAnnotatedWith(MyController.class)) {
+            if (e.getKind() == ElementKind.CLASS) {
+                TypeElement type = (TypeElement) e;
+                MyController controller = type.getAnnotation(MyController.class);
+                addComponent(type, ComponentIndex.STEREOTYPE_CONTROLLER, toLowerFirstCase(type.getSimpleName().toString()),
+                        controller.scope(), controller.lazy());
+            }
+        }
+        for (Element e : roundEnv.getElementsAnnotatedWith(MyService.class)) {
+            if (e.getKind() == ElementKind.CLASS) {
+                TypeElement type = (TypeElement) e;
+                MyService service = type.getAnnotation(MyService.class);
+                String beanName = service.value().trim();
+                if (beanName.isEmpty()) {
+                    beanName = toLowerFirstCase(type.getSimpleName().toString());
+                }
+                addComponent(type, ComponentIndex.STEREOTYPE_SERVICE, beanName, service.scope(), service.lazy());
+            }
+        }
+        return false;
+    }
+
+    private void addComponent(TypeElement type, String stereotype, String beanName, String scope, boolean lazy) {
+        String className = binaryName(type);
+        StringJoiner interfaces = new StringJoiner(",");
+        //只有 service 按接口名登记别名
+        if (ComponentIndex.STEREOTYPE_SERVICE.equals(stereotype)) {
+            for (TypeMirror i : type.getInterfaces()) {
+                String name = binaryName(i);
+                //框架扩展接口不按接口名注册，与 doInstance 保持一致
+                if (!name.startsWith(FRAMEWORK_PACKAGE)) {
+                    interfaces.add(name);
+                }
+            }
+        }
+        lines.put(className, String.join("\t", ComponentIndex.COMPONENT, className, stereotype, beanName, scope,
+                String.valueOf(lazy), interfaces.toString()));
+    }
+
+    private void writeIndex() {
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# generated by " + getClass().getName() + "\n");
+                for (String line : lines.values()) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write component index: " + e);
+        }
+    }
+
+    private String binaryName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.DECLARED) {
+            return binaryName((TypeElement) ((DeclaredType) erased).asElement());
+        }
+        return erased.toString();
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static String toLowerFirstCase(String simpleName) {
+        char[] chars = simpleName.toCharArray();
+        chars[0] += 32;
+        return String.valueOf(chars);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tianhy.mvcframework.invoke;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * @Desc: 已绑定目标对象的方法调用器，在 initHandlerMapping 阶段创建一次，请求时直接调用
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface HandlerInvoker {
+
+    /**
+     * 调用目标方法
+     *
+     * @param args 方法实参
+     * @return 方法返回值，void 方法返回 null
+     * @throws InvocationTargetException 目标方法本身抛出的异常，统一包装，和反射调用保持一致
+     * @throws IllegalAccessException    无法访问目标方法
+     */
+    Object invoke(Object[] args) throws InvocationTargetException, IllegalAccessException;
+}
@@ -0,0 +1,57 @@
+package com.tianhy.mvcframework.invoke;
+
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * @Desc: 根据配置创建调用器
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class HandlerInvokers {
+
+    /**
+     * 配置项：dispatcher.invoker=methodHandle|reflection
+     */
+    public static final String MODE_PROPERTY = "dispatcher.invoker";
+
+    public static final String MODE_METHOD_HANDLE = "methodHandle";
+
+    public static final String MODE_REFLECTION = "reflection";
+
+    private HandlerInvokers() {
+    }
+
+    public static HandlerInvoker create(String mode, Object target, Method method) {
+        if (MODE_REFLECTION.equalsIgnoreCase(mode)) {
+            return new ReflectiveHandlerInvoker(target, method);
+        }
+        try {
+            return MethodHandleInvoker.create(target, method);
+        } catch (IllegalAccessException e) {
+            throw cannotCreate(method, e);
+        }
+    }
+
+    /**
+     * 目标对象每次调用时从 targetSource 获取，用于非单例的controller
+     */
+    public static HandlerInvoker create(String mode, Supplier<?> targetSource, Method method) {
+        if (MODE_REFLECTION.equalsIgnoreCase(mode)) {
+            return new ReflectiveHandlerInvoker(targetSource, method);
+        }
+        try {
+            return MethodHandleInvoker.create(targetSource, method);
+        } catch (IllegalAccessException e) {
+            throw cannotCreate(method, e);
+        }
+    }
+
+    /**
+     * 拿不到 MethodHandle 时初始化失败，不悄悄退回反射；需要反射时显式配置 dispatcher.invoker=reflection
+     */
+    private static IllegalStateException cannotCreate(Method method, IllegalAccessException e) {
+        return new IllegalStateException("Cannot create method handle invoker for " + method
+                + ", set " + MODE_PROPERTY + "=" + MODE_REFLECTION + " to use reflection", e);
+    }
+}
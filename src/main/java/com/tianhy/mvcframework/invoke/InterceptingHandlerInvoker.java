@@ -0,0 +1,58 @@
+package com.tianhy.mvcframework.invoke;
+
+import com.tianhy.mvcframework.aop.AbstractMethodInvocation;
+import com.tianhy.mvcframework.aop.MethodInterceptor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * @Desc: 先执行拦截器链，最后交给原来的调用器执行handler方法
+ * <p>
+ * 只有匹配到切面的handler才会被包装，其他handler仍然直接使用原来的调用器。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class InterceptingHandlerInvoker implements HandlerInvoker {
+
+    private final HandlerInvoker delegate;
+    private final Method method;
+    private final MethodInterceptor[] interceptors;
+    private final Supplier<?> targetSource;
+
+    /**
+     * @param targetSource 拦截器通过 getThis() 获取controller实例，非单例的controller每次都会从容器重新获取
+     */
+    public InterceptingHandlerInvoker(HandlerInvoker delegate, Method method, MethodInterceptor[] interceptors, Supplier<?> targetSource) {
+        this.delegate = delegate;
+        this.method = method;
+        this.interceptors = interceptors;
+        this.targetSource = targetSource;
+    }
+
+    @Override
+    public Object invoke(Object[] args) throws InvocationTargetException, IllegalAccessException {
+        try {
+            return new AbstractMethodInvocation(method, args, interceptors) {
+                @Override
+                public Object getThis() {
+                    return targetSource.get();
+                }
+
+                @Override
+                protected Object invokeJoinpoint() throws Throwable {
+                    try {
+                        return delegate.invoke(getArguments());
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+            }.proceed();
+        } catch (IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.tianhy.mvcframework.invoke;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * @Desc: 基于 MethodHandle 的调用器
+ * <p>
+ * 初始化时把 controller 方法 unreflect 成 MethodHandle，访问检查只做一次，并适配成 (Object, Object[])Object 的统一签名；
+ * 再以 MethodHandleInvokerTemplate 为模板给每个方法定义一个隐藏类，MethodHandle 放在隐藏类的 static final 字段里。
+ * 放在普通实例字段里的 MethodHandle 对 JIT 来说不是常量，invokeExact 每次都要走一遍适配链；
+ * 放在 static final 字段里的是常量，JIT 可以把适配链和 controller 方法一起内联进 invoke。
+ * 实参数组由分发计划创建，调用时直接展开，不再复制。
+ * 只有 controller 方法自己抛出的异常包装成 InvocationTargetException；实参个数、类型不对或 null 拆箱给基本类型
+ * 这些适配阶段的错误和反射一样是 IllegalArgumentException。
+ * 隐藏类没有强引用时可以随 refresh 丢弃的 Handler 一起卸载。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class MethodHandleInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, Method.class, Object.class, Supplier.class);
+
+    private static final byte[] TEMPLATE = readTemplate();
+
+    private static final MethodHandle WRAP_TARGET_EXCEPTION;
+
+    static {
+        try {
+            WRAP_TARGET_EXCEPTION = MethodHandles.lookup().findStatic(MethodHandleInvoker.class, "wrapTargetException",
+                    MethodType.methodType(Object.class, Throwable.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private MethodHandleInvoker() {
+    }
+
+    /**
+     * 目标对象固定(单例controller或静态方法)
+     */
+    public static HandlerInvoker create(Object target, Method method) throws IllegalAccessException {
+        return define(method, target, null);
+    }
+
+    /**
+     * 目标对象每次调用时从 targetSource 获取，用于非单例的controller
+     */
+    public static HandlerInvoker create(Supplier<?> targetSource, Method method) throws IllegalAccessException {
+        if (Modifier.isStatic(method.getModifiers())) {
+            throw new IllegalArgumentException("Static method does not need a target source: " + method);
+        }
+        return define(method, null, targetSource);
+    }
+
+    private static Object wrapTargetException(Throwable e) throws InvocationTargetException {
+        throw new InvocationTargetException(e);
+    }
+
+    private static HandlerInvoker define(Method method, Object target, Supplier<?> targetSource) throws IllegalAccessException {
+        method.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            //静态方法没有接收者，统一签名里的 target 参数丢掉
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        //包装只套在目标方法上，展开、转换实参时的异常不经过这里
+        MethodType targetType = handle.type();
+        MethodHandle wrap = MethodHandles.dropArguments(
+                WRAP_TARGET_EXCEPTION.asType(MethodType.methodType(targetType.returnType(), Throwable.class)),
+                1, targetType.parameterList());
+        handle = MethodHandles.catchException(handle, Throwable.class, wrap);
+        handle = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+        MethodHandles.Lookup hidden = MethodHandles.lookup().defineHiddenClassWithClassData(TEMPLATE, handle, true);
+        try {
+            return (HandlerInvoker) hidden.findConstructor(hidden.lookupClass(), CONSTRUCTOR_TYPE)
+                    .invoke(method, target, targetSource);
+        } catch (IllegalAccessException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create invoker for " + method, e);
+        }
+    }
+
+    private static byte[] readTemplate() {
+        String resource = MethodHandleInvokerTemplate.class.getSimpleName() + ".class";
+        try (InputStream in = MethodHandleInvokerTemplate.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.tianhy.mvcframework.invoke;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * @Desc: MethodHandleInvoker 生成调用器用的模板
+ * <p>
+ * 这个类本身从不加载：MethodHandleInvoker 读取它的字节码，为每个 controller 方法定义一个隐藏类，
+ * 方法对应的 MethodHandle 作为 class data 传入，放进 static final 字段。
+ * JIT 把 static final 字段当作常量，invokeExact 可以一路内联到 controller 方法。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+final class MethodHandleInvokerTemplate implements HandlerInvoker {
+
+    /**
+     * (Object target, Object[] args)Object
+     */
+    private static final MethodHandle HANDLE;
+
+    static {
+        try {
+            HANDLE = MethodHandles.classData(MethodHandles.lookup(), "_", MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Method method;
+
+    private final Object target;
+
+    /**
+     * 非单例的controller每次调用时从这里取目标对象，单例时为 null
+     */
+    private final Supplier<?> targetSource;
+
+    MethodHandleInvokerTemplate(Method method, Object target, Supplier<?> targetSource) {
+        this.method = method;
+        this.target = target;
+        this.targetSource = targetSource;
+    }
+
+    @Override
+    public Object invoke(Object[] args) throws InvocationTargetException {
+        Object t = targetSource != null ? targetSource.get() : target;
+        try {
+            return (Object) HANDLE.invokeExact(t, args);
+        } catch (InvocationTargetException | Error e) {
+            //目标方法抛出的异常已经在 MethodHandle 里包装好
+            throw e;
+        } catch (Throwable e) {
+            //实参个数、类型不对或 null 拆箱，和反射一样
+            throw new IllegalArgumentException("Argument mismatch for " + method + ": " + e, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "methodHandle:" + method;
+    }
+}
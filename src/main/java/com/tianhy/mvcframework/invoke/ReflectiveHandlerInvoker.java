@@ -0,0 +1,35 @@
+package com.tianhy.mvcframework.invoke;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * @Desc: 基于 java.lang.reflect.Method 的调用器，作为兜底模式保留
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ReflectiveHandlerInvoker implements HandlerInvoker {
+
+    private final Supplier<?> targetSource;
+    private final Method method;
+
+    public ReflectiveHandlerInvoker(Object target, Method method) {
+        this(() -> target, method);
+    }
+
+    public ReflectiveHandlerInvoker(Supplier<?> targetSource, Method method) {
+        this.targetSource = targetSource;
+        this.method = method;
+    }
+
+    @Override
+    public Object invoke(Object[] args) throws InvocationTargetException, IllegalAccessException {
+        return method.invoke(targetSource.get(), args);
+    }
+
+    @Override
+    public String toString() {
+        return "reflection:" + method;
+    }
+}
@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @Desc: 请求分发：绑定、转换参数
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Name("com.tianhy.mvcframework.ArgumentBinding")
+@Label("Argument Binding")
+@Description("Bind and convert request parameters to handler arguments")
+class ArgumentBindingEvent extends DispatchEvent {
+}
@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @Desc: 容器：通过构造器创建bean
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Name("com.tianhy.mvcframework.BeanCreation")
+@Label("Bean Creation")
+@Description("Instantiate a bean through its constructor")
+class BeanCreationEvent extends BeanEvent {
+}
@@ -0,0 +1,21 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * @Desc: bean生命周期事件的公共字段
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Category({"MVC Framework", "Container"})
+@StackTrace(false)
+abstract class BeanEvent extends jdk.jfr.Event {
+
+    @Label("Bean Name")
+    String beanName;
+
+    @Label("Bean Class")
+    Class<?> beanClass;
+}
@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @Desc: 容器：给bean的@MyAutowired字段赋值
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Name("com.tianhy.mvcframework.BeanInjection")
+@Label("Bean Injection")
+@Description("Inject @MyAutowired fields of a bean")
+class BeanInjectionEvent extends BeanEvent {
+}
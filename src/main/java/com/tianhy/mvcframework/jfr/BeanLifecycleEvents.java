@@ -0,0 +1,50 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.function.Supplier;
+
+/**
+ * @Desc: 容器创建bean、注入依赖时的 JFR 事件
+ * <p>
+ * 没有录制或事件没有开启时直接执行，不创建事件对象
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class BeanLifecycleEvents {
+
+    private BeanLifecycleEvents() {
+    }
+
+    public static <T> T creation(String beanName, Class<?> beanClass, Supplier<T> construction) {
+        if (!FlightRecorder.isInitialized() || !EventTypes.BEAN_CREATION.isEnabled()) {
+            return construction.get();
+        }
+        BeanCreationEvent event = new BeanCreationEvent();
+        event.begin();
+        T instance = construction.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.beanName = beanName;
+            event.beanClass = beanClass;
+            event.commit();
+        }
+        return instance;
+    }
+
+    public static void injection(String beanName, Class<?> beanClass, Runnable injection) {
+        if (!FlightRecorder.isInitialized() || !EventTypes.BEAN_INJECTION.isEnabled()) {
+            injection.run();
+            return;
+        }
+        BeanInjectionEvent event = new BeanInjectionEvent();
+        event.begin();
+        injection.run();
+        event.end();
+        if (event.shouldCommit()) {
+            event.beanName = beanName;
+            event.beanClass = beanClass;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * @Desc: 请求分发各阶段事件的公共字段：路由和controller方法
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Category({"MVC Framework", "Dispatch"})
+@StackTrace(false)
+abstract class DispatchEvent extends jdk.jfr.Event {
+
+    @Label("Route")
+    String route;
+
+    @Label("Controller")
+    Class<?> controller;
+
+    @Label("Method")
+    String method;
+}
@@ -0,0 +1,102 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.FlightRecorder;
+
+import java.lang.reflect.Method;
+
+/**
+ * @Desc: 一次请求分发的 JFR 事件：查找路由 -> 绑定参数 -> 调用 -> 写响应，前一个阶段结束时下一个阶段开始
+ * <p>
+ * 没有录制或者这几个事件都没有开启时 start 返回 null，调用方只多一次判空，不分配对象；
+ * 只在处理请求的线程上使用，异步写响应用 startWrite 单独记录。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class DispatchTracer {
+
+    private String route;
+
+    private Class<?> controller;
+
+    private String method;
+
+    private DispatchEvent current;
+
+    private DispatchTracer() {
+    }
+
+    /**
+     * 请求开始，进入查找路由阶段
+     *
+     * @return 没有需要记录的事件时为 null
+     */
+    public static DispatchTracer start() {
+        if (!FlightRecorder.isInitialized() || !EventTypes.anyDispatchEventEnabled()) {
+            return null;
+        }
+        DispatchTracer tracer = new DispatchTracer();
+        tracer.next(new RouteResolutionEvent());
+        return tracer;
+    }
+
+    /**
+     * 异步结果在其他线程上写响应时使用，直接进入写响应阶段
+     */
+    public static DispatchTracer startWrite(String route, Method method) {
+        if (!FlightRecorder.isInitialized() || !EventTypes.RESPONSE_WRITE.isEnabled()) {
+            return null;
+        }
+        DispatchTracer tracer = new DispatchTracer();
+        tracer.setHandler(route, method);
+        tracer.next(new ResponseWriteEvent());
+        return tracer;
+    }
+
+    /**
+     * 找到了handler，进入绑定参数阶段
+     */
+    public void resolved(String route, Method method) {
+        setHandler(route, method);
+        next(new ArgumentBindingEvent());
+    }
+
+    public void invoking() {
+        next(new HandlerInvocationEvent());
+    }
+
+    public void writing() {
+        next(new ResponseWriteEvent());
+    }
+
+    /**
+     * 提交当前阶段，可以重复调用
+     */
+    public void end() {
+        DispatchEvent event = current;
+        if (event == null) {
+            return;
+        }
+        current = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.route = route;
+            event.controller = controller;
+            event.method = method;
+            event.commit();
+        }
+    }
+
+    private void setHandler(String route, Method method) {
+        this.route = route;
+        this.controller = method.getDeclaringClass();
+        this.method = method.getName();
+    }
+
+    private void next(DispatchEvent event) {
+        end();
+        if (event.isEnabled()) {
+            event.begin();
+            current = event;
+        }
+    }
+}
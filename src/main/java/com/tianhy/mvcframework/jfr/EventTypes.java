@@ -0,0 +1,29 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * @Desc: 缓存各事件的 EventType，用来在创建事件对象之前判断是否开启
+ * <p>
+ * 调用方先用 FlightRecorder.isInitialized() 判断，JFR 已经初始化后才会加载这个类：
+ * 事件类一加载就会初始化 JFR(几百毫秒)，没有录制时不能碰它们。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+final class EventTypes {
+
+    static final EventType ROUTE_RESOLUTION = EventType.getEventType(RouteResolutionEvent.class);
+    static final EventType ARGUMENT_BINDING = EventType.getEventType(ArgumentBindingEvent.class);
+    static final EventType HANDLER_INVOCATION = EventType.getEventType(HandlerInvocationEvent.class);
+    static final EventType RESPONSE_WRITE = EventType.getEventType(ResponseWriteEvent.class);
+    static final EventType BEAN_CREATION = EventType.getEventType(BeanCreationEvent.class);
+    static final EventType BEAN_INJECTION = EventType.getEventType(BeanInjectionEvent.class);
+
+    private EventTypes() {
+    }
+
+    static boolean anyDispatchEventEnabled() {
+        return ROUTE_RESOLUTION.isEnabled() || ARGUMENT_BINDING.isEnabled()
+                || HANDLER_INVOCATION.isEnabled() || RESPONSE_WRITE.isEnabled();
+    }
+}
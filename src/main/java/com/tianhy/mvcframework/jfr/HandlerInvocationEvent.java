@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @Desc: 请求分发：调用controller方法
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Name("com.tianhy.mvcframework.HandlerInvocation")
+@Label("Handler Invocation")
+@Description("Invoke the controller method")
+class HandlerInvocationEvent extends DispatchEvent {
+}
@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @Desc: 请求分发：把返回值写到响应
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Name("com.tianhy.mvcframework.ResponseWrite")
+@Label("Response Write")
+@Description("Write the handler return value to the response")
+class ResponseWriteEvent extends DispatchEvent {
+}
@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @Desc: 请求分发：查找路由
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Name("com.tianhy.mvcframework.RouteResolution")
+@Label("Route Resolution")
+@Description("Find the handler for the request path")
+class RouteResolutionEvent extends DispatchEvent {
+}
@@ -0,0 +1,240 @@
+package com.tianhy.mvcframework.metrics;
+
+import com.tianhy.mvcframework.cache.CacheStats;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Desc: 一次 refresh 内所有路由的指标
+ * <p>
+ * 路由在初始化时登记，之后集合不再变化，请求线程只在各自的 RouteMetrics 上记录；
+ * 导出时(Prometheus 文本或 JMX)才去汇总，读到的是近似一致的快照。
+ * refresh 之后旧的 registry 注销 MBean，新的重新注册，计数从 0 开始。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class MetricsRegistry {
+
+    /**
+     * 配置项：是否记录指标，默认 true
+     */
+    public static final String ENABLED_PROPERTY = "metrics.enabled";
+
+    /**
+     * 配置项：Prometheus 文本格式的指标地址，没有controller映射该路径时生效，默认 /metrics，留空关闭
+     */
+    public static final String PATH_PROPERTY = "metrics.path";
+
+    /**
+     * 配置项：是否注册 JMX MBean，默认 true
+     */
+    public static final String JMX_PROPERTY = "metrics.jmx";
+
+    /**
+     * 配置项：是否分阶段(lookup/bind/invoke/write)计时，默认 true
+     */
+    public static final String PHASES_PROPERTY = "metrics.phases";
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String JMX_DOMAIN = "com.tianhy.mvcframework";
+
+    /**
+     * 导出的 le 桶边界(秒)
+     */
+    private static final double[] BUCKET_SECONDS = {
+            0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final String path;
+
+    private final boolean jmx;
+
+    private final boolean phases;
+
+    private final Map<String, RouteMetrics> routes = new LinkedHashMap<>();
+
+    private final LongAdder unmatched = new LongAdder();
+
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    public MetricsRegistry(String path, boolean jmx, boolean phases) {
+        this.path = path == null || path.trim().isEmpty() ? null : path.trim();
+        this.jmx = jmx;
+        this.phases = phases;
+    }
+
+    /**
+     * 按配置创建，metrics.enabled=false 时返回 null
+     */
+    public static MetricsRegistry create(Properties config) {
+        if (!Boolean.parseBoolean(config.getProperty(ENABLED_PROPERTY, "true"))) {
+            return null;
+        }
+        return new MetricsRegistry(config.getProperty(PATH_PROPERTY, "/metrics"),
+                Boolean.parseBoolean(config.getProperty(JMX_PROPERTY, "true")),
+                Boolean.parseBoolean(config.getProperty(PHASES_PROPERTY, "true")));
+    }
+
+    /**
+     * 初始化时登记路由
+     */
+    public RouteMetrics register(String route, String handler) {
+        RouteMetrics metrics = new RouteMetrics(route, handler, phases);
+        if (routes.putIfAbsent(route, metrics) != null) {
+            throw new IllegalStateException("Duplicate metrics route: " + route);
+        }
+        return metrics;
+    }
+
+    public Collection<RouteMetrics> getRoutes() {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    public boolean isMetricsPath(String lookupPath) {
+        return path != null && path.equals(lookupPath);
+    }
+
+    /**
+     * 没有匹配到任何路由的请求
+     */
+    public void recordUnmatched() {
+        unmatched.increment();
+    }
+
+    public long getUnmatchedCount() {
+        return unmatched.sum();
+    }
+
+    public void registerMBeans() {
+        if (!jmx) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (RouteMetrics metrics : routes.values()) {
+            try {
+                ObjectName name = new ObjectName(JMX_DOMAIN + ":type=RouteMetrics,route=" + ObjectName.quote(metrics.getRoute()));
+                //同一个JVM里可能部署了多个DispatcherServlet，已经注册过的跳过
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(metrics, name);
+                    registeredNames.add(name);
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredNames) {
+            try {
+                server.unregisterMBean(name);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        registeredNames.clear();
+    }
+
+    /**
+     * 按 Prometheus 文本格式(0.0.4)输出所有指标
+     *
+     * @param cacheStats 同时导出的缓存计数
+     */
+    public void writePrometheus(Writer out, List<CacheStats> cacheStats) throws IOException {
+        header(out, "mvc_requests_total", "counter", "Requests dispatched to the route.");
+        for (RouteMetrics metrics : routes.values()) {
+            sample(out, "mvc_requests_total", routeLabel(metrics), metrics.getRequestCount());
+        }
+        header(out, "mvc_requests_in_flight", "gauge", "Requests currently being handled by the route.");
+        for (RouteMetrics metrics : routes.values()) {
+            sample(out, "mvc_requests_in_flight", routeLabel(metrics), metrics.getInFlight());
+        }
+        header(out, "mvc_request_errors_total", "counter", "Requests that failed with an exception, by exception type.");
+        for (RouteMetrics metrics : routes.values()) {
+            for (Map.Entry<String, Long> entry : metrics.getErrorsByType().entrySet()) {
+                sample(out, "mvc_request_errors_total",
+                        routeLabel(metrics) + ",exception=\"" + escape(entry.getKey()) + "\"", entry.getValue());
+            }
+        }
+        header(out, "mvc_requests_unmatched_total", "counter", "Requests that did not match any route.");
+        sample(out, "mvc_requests_unmatched_total", null, unmatched.sum());
+
+        header(out, "mvc_request_duration_seconds", "histogram", "Time from route lookup until the response is written.");
+        for (RouteMetrics metrics : routes.values()) {
+            histogram(out, "mvc_request_duration_seconds", routeLabel(metrics), metrics.getLatency());
+        }
+        header(out, "mvc_request_phase_duration_seconds", "histogram", "Time spent in each dispatch phase.");
+        for (RouteMetrics metrics : routes.values()) {
+            if (!metrics.isPhasesEnabled()) {
+                continue;
+            }
+            for (RouteMetrics.Phase phase : RouteMetrics.Phase.values()) {
+                histogram(out, "mvc_request_phase_duration_seconds",
+                        routeLabel(metrics) + ",phase=\"" + phase.getLabel() + "\"", metrics.getPhase(phase));
+            }
+        }
+
+        if (!cacheStats.isEmpty()) {
+            header(out, "mvc_cache_hits_total", "counter", "Cache hits.");
+            for (CacheStats stats : cacheStats) {
+                sample(out, "mvc_cache_hits_total", cacheLabel(stats), stats.getHitCount());
+            }
+            header(out, "mvc_cache_misses_total", "counter", "Cache misses.");
+            for (CacheStats stats : cacheStats) {
+                sample(out, "mvc_cache_misses_total", cacheLabel(stats), stats.getMissCount());
+            }
+            header(out, "mvc_cache_evictions_total", "counter", "Entries evicted by size or weight limits.");
+            for (CacheStats stats : cacheStats) {
+                sample(out, "mvc_cache_evictions_total", cacheLabel(stats), stats.getEvictionCount());
+            }
+            header(out, "mvc_cache_size", "gauge", "Entries currently cached.");
+            for (CacheStats stats : cacheStats) {
+                sample(out, "mvc_cache_size", cacheLabel(stats), stats.getSize());
+            }
+        }
+        out.flush();
+    }
+
+    private static void histogram(Writer out, String name, String labels, LatencyHistogram histogram) throws IOException {
+        long[] snapshot = histogram.snapshot();
+        long count = 0;
+        for (long c : snapshot) {
+            count += c;
+        }
+        for (double seconds : BUCKET_SECONDS) {
+            out.write(name + "_bucket{" + labels + ",le=\"" + seconds + "\"} "
+                    + LatencyHistogram.cumulativeCount(snapshot, (long) (seconds * 1_000_000_000d)) + "\n");
+        }
+        out.write(name + "_bucket{" + labels + ",le=\"+Inf\"} " + count + "\n");
+        out.write(name + "_sum{" + labels + "} " + histogram.getSum() / 1_000_000_000d + "\n");
+        out.write(name + "_count{" + labels + "} " + count + "\n");
+    }
+
+    private static void header(Writer out, String name, String type, String help) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private static void sample(Writer out, String name, String labels, long value) throws IOException {
+        out.write(labels == null ? name + " " + value + "\n" : name + "{" + labels + "} " + value + "\n");
+    }
+
+    private static String routeLabel(RouteMetrics metrics) {
+        return "route=\"" + escape(metrics.getRoute()) + "\"";
+    }
+
+    private static String cacheLabel(CacheStats stats) {
+        return "cache=\"" + escape(stats.getName()) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
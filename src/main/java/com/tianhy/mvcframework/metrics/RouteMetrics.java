@@ -0,0 +1,173 @@
+package com.tianhy.mvcframework.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Desc: 单个路由(Handler)的指标：请求数、进行中的请求数、按异常类型的错误数、总耗时和各阶段耗时的直方图
+ * <p>
+ * 计数全部用 LongAdder，多个请求线程同时记录时落在不同的 cell 上，不会争抢同一个缓存行；
+ * 错误计数第一次出现某种异常时才创建计数器，之后只是一次 get 加一次累加。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class RouteMetrics implements RouteMetricsMXBean {
+
+    /**
+     * 请求处理的阶段
+     */
+    public enum Phase {
+        LOOKUP, BIND, INVOKE, WRITE;
+
+        private final String label = name().toLowerCase();
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final String route;
+
+    private final String handler;
+
+    private final boolean phasesEnabled;
+
+    private final LongAdder inFlight = new LongAdder();
+
+    private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+
+    /**
+     * @param phasesEnabled 是否分阶段计时，关闭后每个请求只取两次时间戳
+     */
+    public RouteMetrics(String route, String handler, boolean phasesEnabled) {
+        this.route = route;
+        this.handler = handler;
+        this.phasesEnabled = phasesEnabled;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    public void requestStarted() {
+        inFlight.increment();
+    }
+
+    /**
+     * @param nanos 从开始查找路由到响应写完的耗时
+     */
+    public void requestFinished(long nanos) {
+        inFlight.decrement();
+        latency.record(nanos);
+    }
+
+    public boolean isPhasesEnabled() {
+        return phasesEnabled;
+    }
+
+    public void recordPhase(Phase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    public void recordError(Throwable error) {
+        String type = unwrap(error).getClass().getName();
+        LongAdder counter = errors.get(type);
+        if (counter == null) {
+            counter = errors.computeIfAbsent(type, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getPhase(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    @Override
+    public String getRoute() {
+        return route;
+    }
+
+    @Override
+    public String getHandler() {
+        return handler;
+    }
+
+    @Override
+    public long getRequestCount() {
+        //已完成的请求都记在总耗时直方图里，不再单独计数
+        return latency.getCount() + inFlight.sum();
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        long count = 0;
+        for (LongAdder counter : errors.values()) {
+            count += counter.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> getErrorsByType() {
+        Map<String, Long> result = new TreeMap<>();
+        errors.forEach((type, counter) -> result.put(type, counter.sum()));
+        return result;
+    }
+
+    @Override
+    public double getMeanLatencyMillis() {
+        return latency.getMean() / 1_000_000d;
+    }
+
+    @Override
+    public double getP50LatencyMillis() {
+        return latency.valueAtQuantile(0.5) / 1_000_000d;
+    }
+
+    @Override
+    public double getP99LatencyMillis() {
+        return latency.valueAtQuantile(0.99) / 1_000_000d;
+    }
+
+    @Override
+    public double getMaxLatencyMillis() {
+        return latency.getMax() / 1_000_000d;
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMeanMicros() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Phase phase : PHASES) {
+            result.put(phase.getLabel(), getPhase(phase).getMean() / 1_000d);
+        }
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof InvocationTargetException || error instanceof CompletionException
+                || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,40 @@
+package com.tianhy.mvcframework.metrics;
+
+import java.util.Map;
+
+/**
+ * @Desc: 单个路由的指标，注册到平台 MBeanServer，ObjectName 为
+ * com.tianhy.mvcframework:type=RouteMetrics,route="/xxx"
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface RouteMetricsMXBean {
+
+    String getRoute();
+
+    String getHandler();
+
+    long getRequestCount();
+
+    long getInFlight();
+
+    long getErrorCount();
+
+    /**
+     * 异常类名 -> 次数
+     */
+    Map<String, Long> getErrorsByType();
+
+    double getMeanLatencyMillis();
+
+    double getP50LatencyMillis();
+
+    double getP99LatencyMillis();
+
+    double getMaxLatencyMillis();
+
+    /**
+     * 阶段(lookup/bind/invoke/write) -> 平均耗时(微秒)
+     */
+    Map<String, Double> getPhaseMeanMicros();
+}
@@ -0,0 +1,43 @@
+package com.tianhy.mvcframework.resource;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Desc: 小文件内容缓存，按条数和总字节数限制，LRU 淘汰
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+class ResourceCache {
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<String, ResourceHandler.Resource> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    ResourceCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized ResourceHandler.Resource get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, ResourceHandler.Resource resource) {
+        if (resource.weight() > maxBytes) {
+            return;
+        }
+        ResourceHandler.Resource previous = entries.put(key, resource);
+        if (previous != null) {
+            bytes -= previous.weight();
+        }
+        bytes += resource.weight();
+        Iterator<Map.Entry<String, ResourceHandler.Resource>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+            bytes -= iterator.next().getValue().weight();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package com.tianhy.mvcframework.resource;
+
+import com.tianhy.mvcframework.startup.StartupProfiler;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * @Desc: 静态资源处理：没有匹配到controller的请求，按配置的 URL前缀=位置 映射到 classpath 或文件系统中的文件
+ * <p>
+ * 配置 resource.mappings=/static/=classpath:static/,/files/=file:/data/files/
+ * <ul>
+ * <li>支持 ETag / Last-Modified，If-None-Match / If-Modified-Since 命中时返回 304</li>
+ * <li>支持单段 Range 请求(206/416)，多段 Range 按完整内容返回</li>
+ * <li>不超过 resource.cache.maxFileSize 的文件缓存在内存中，总量受 maxEntries / maxBytes 限制，按 LRU 淘汰，文件修改后自动失效</li>
+ * <li>大文件：容器支持 sendfile(Tomcat 的 org.apache.tomcat.sendfile.support)时交给容器零拷贝发送；
+ * 否则用 FileChannel.transferTo 写到响应流</li>
+ * </ul>
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ResourceHandler {
+
+    public static final String MAPPINGS_PROPERTY = "resource.mappings";
+    public static final String CACHE_MAX_FILE_SIZE_PROPERTY = "resource.cache.maxFileSize";
+    public static final String CACHE_MAX_ENTRIES_PROPERTY = "resource.cache.maxEntries";
+    public static final String CACHE_MAX_BYTES_PROPERTY = "resource.cache.maxBytes";
+    public static final String CACHE_PERIOD_PROPERTY = "resource.cachePeriod";
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+    private static final String FILE_PREFIX = "file:";
+
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private final List<Mapping> mappings;
+    private final ResourceCache cache;
+    private final long maxCachedFileSize;
+    private final ClassLoader classLoader;
+    private final ServletContext servletContext;
+    /**
+     * Cache-Control max-age，小于0不设置
+     */
+    private final long cachePeriod;
+
+    private ResourceHandler(List<Mapping> mappings, long maxCachedFileSize, int maxEntries, long maxBytes,
+                            long cachePeriod, ClassLoader classLoader, ServletContext servletContext) {
+        this.mappings = mappings;
+        this.maxCachedFileSize = maxCachedFileSize;
+        this.cache = maxCachedFileSize > 0 && maxEntries > 0 ? new ResourceCache(maxEntries, maxBytes) : null;
+        this.cachePeriod = cachePeriod;
+        this.classLoader = classLoader;
+        this.servletContext = servletContext;
+    }
+
+    /**
+     * 按配置创建
+     *
+     * @param profiler 映射的资源目录记录到启动报告的路由里
+     * @return 没有配置 resource.mappings 时返回 null
+     */
+    public static ResourceHandler create(Properties config, ClassLoader classLoader, ServletContext servletContext,
+                                         StartupProfiler profiler) {
+        String value = config.getProperty(MAPPINGS_PROPERTY, "").trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        List<Mapping> mappings = new ArrayList<>();
+        for (String item : value.split(",")) {
+            int eq = item.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Invalid " + MAPPINGS_PROPERTY + " entry: " + item);
+            }
+            String prefix = item.substring(0, eq).trim();
+            if (!prefix.startsWith("/")) {
+                prefix = "/" + prefix;
+            }
+            if (!prefix.endsWith("/")) {
+                prefix = prefix + "/";
+            }
+            String location = item.substring(eq + 1).trim();
+            mappings.add(new Mapping(prefix, location));
+            profiler.addRoute(prefix + "**", "resource:" + location);
+        }
+        return new ResourceHandler(mappings,
+                Long.parseLong(config.getProperty(CACHE_MAX_FILE_SIZE_PROPERTY, "65536")),
+                Integer.parseInt(config.getProperty(CACHE_MAX_ENTRIES_PROPERTY, "256")),
+                Long.parseLong(config.getProperty(CACHE_MAX_BYTES_PROPERTY, String.valueOf(16 * 1024 * 1024))),
+                Long.parseLong(config.getProperty(CACHE_PERIOD_PROPERTY, "-1")),
+                classLoader, servletContext);
+    }
+
+    /**
+     * 处理请求
+     *
+     * @param path 去掉 contextPath 后的请求路径
+     * @return 找到并处理了资源返回 true；没有对应的资源返回 false，由调用方返回 404
+     */
+    public boolean handle(String path, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String method = req.getMethod();
+        if (method != null && !"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        Resource resource = resolve(path);
+        if (resource == null) {
+            return false;
+        }
+
+        resp.setHeader("ETag", resource.etag);
+        resp.setDateHeader("Last-Modified", resource.lastModified);
+        resp.setHeader("Accept-Ranges", "bytes");
+        if (cachePeriod >= 0) {
+            resp.setHeader("Cache-Control", "max-age=" + cachePeriod);
+        }
+        if (isNotModified(req, resource)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        resp.setContentType(resource.contentType);
+
+        long start = 0;
+        long end = resource.length - 1;
+        String range = req.getHeader("Range");
+        if (range != null && isIfRangeSatisfied(req, resource)) {
+            long[] bounds = parseRange(range, resource.length);
+            if (bounds == null) {
+                resp.setHeader("Content-Range", "bytes */" + resource.length);
+                resp.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return true;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                resp.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + resource.length);
+            }
+        }
+        long length = end - start + 1;
+        resp.setContentLengthLong(length);
+        if ("HEAD".equals(method) || length == 0) {
+            return true;
+        }
+        writeBody(resource, start, length, req, resp);
+        return true;
+    }
+
+    private void writeBody(Resource resource, long start, long length, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (resource.content != null) {
+            resp.getOutputStream().write(resource.content, (int) start, (int) length);
+            return;
+        }
+        if (resource.file != null) {
+            if (Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+                //容器在请求处理完之后用 sendfile 直接从文件发到 socket，数据不经过用户态
+                req.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, resource.file.toAbsolutePath().toString());
+                req.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+                req.setAttribute(SENDFILE_END_ATTRIBUTE, start + length);
+                return;
+            }
+            ServletOutputStream out = resp.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            try (FileChannel channel = FileChannel.open(resource.file, StandardOpenOption.READ)) {
+                long position = start;
+                long remaining = length;
+                while (remaining > 0) {
+                    long written = channel.transferTo(position, remaining, target);
+                    if (written <= 0) {
+                        throw new IOException("Unexpected end of file: " + resource.file);
+                    }
+                    position += written;
+                    remaining -= written;
+                }
+            }
+            return;
+        }
+        //jar 中的资源只能按流读取
+        try (InputStream in = resource.url.openStream()) {
+            long skipped = 0;
+            while (skipped < start) {
+                long n = in.skip(start - skipped);
+                if (n <= 0) {
+                    throw new IOException("Unexpected end of resource: " + resource.url);
+                }
+                skipped += n;
+            }
+            ServletOutputStream out = resp.getOutputStream();
+            byte[] buffer = new byte[8192];
+            long remaining = length;
+            while (remaining > 0) {
+                int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (n < 0) {
+                    throw new IOException("Unexpected end of resource: " + resource.url);
+                }
+                out.write(buffer, 0, n);
+                remaining -= n;
+            }
+        }
+    }
+
+    private Resource resolve(String path) throws IOException {
+        for (Mapping mapping : mappings) {
+            if (!path.startsWith(mapping.prefix)) {
+                continue;
+            }
+            String relative = decode(path.substring(mapping.prefix.length()));
+            if (relative == null || relative.isEmpty() || relative.endsWith("/")) {
+                return null;
+            }
+            Resource resource = mapping.isClasspath() ? resolveClasspath(mapping, relative) : resolveFile(mapping, relative);
+            if (resource != null) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    private Resource resolveFile(Mapping mapping, String relative) throws IOException {
+        Path base = Paths.get(mapping.location.substring(FILE_PREFIX.length())).toAbsolutePath().normalize();
+        Path file = base.resolve(relative).normalize();
+        if (!file.startsWith(base)) {
+            return null;
+        }
+        return loadFile(file);
+    }
+
+    private Resource resolveClasspath(Mapping mapping, String relative) throws IOException {
+        String location = mapping.location.substring(CLASSPATH_PREFIX.length());
+        if (location.startsWith("/")) {
+            location = location.substring(1);
+        }
+        if (!location.isEmpty() && !location.endsWith("/")) {
+            location = location + "/";
+        }
+        String name = location + relative;
+        URL url = classLoader.getResource(name);
+        if (url == null) {
+            return null;
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return loadFile(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        }
+        //jar 中的资源：内容不会变化，按 URL 缓存
+        String key = url.toString();
+        Resource cached = cache != null ? cache.get(key) : null;
+        if (cached != null) {
+            return cached;
+        }
+        URLConnection connection = url.openConnection();
+        long length = connection.getContentLengthLong();
+        long lastModified = connection.getLastModified();
+        if (length < 0) {
+            return null;
+        }
+        byte[] content = null;
+        if (cache != null && length <= maxCachedFileSize) {
+            try (InputStream in = connection.getInputStream()) {
+                content = in.readAllBytes();
+            }
+            length = content.length;
+        } else {
+            connection.getInputStream().close();
+        }
+        Resource resource = new Resource(null, url, content, length, lastModified, contentType(relative));
+        if (content != null) {
+            cache.put(key, resource);
+        }
+        return resource;
+    }
+
+    private Resource loadFile(Path file) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String key = file.toString();
+        if (cache != null) {
+            Resource cached = cache.get(key);
+            //文件被修改过，缓存失效
+            if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+                return cached;
+            }
+        }
+        byte[] content = null;
+        if (cache != null && length <= maxCachedFileSize) {
+            content = Files.readAllBytes(file);
+            if (content.length != length) {
+                //读的过程中文件被修改了，这次不缓存
+                return new Resource(file, null, null, length, lastModified, contentType(key));
+            }
+        }
+        Resource resource = new Resource(file, null, content, length, lastModified, contentType(key));
+        if (content != null) {
+            cache.put(key, resource);
+        }
+        return resource;
+    }
+
+    private boolean isNotModified(HttpServletRequest req, Resource resource) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, resource.etag);
+        }
+        long ifModifiedSince = dateHeader(req, "If-Modified-Since");
+        //HTTP 日期只精确到秒
+        return ifModifiedSince >= 0 && resource.lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private boolean isIfRangeSatisfied(HttpServletRequest req, Resource resource) {
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            //If-Range 只能用强比较(RFC 7233 §3.2)，弱 ETag 永远不满足，返回完整的 200
+            return !ifRange.startsWith("W/") && !resource.etag.startsWith("W/") && ifRange.trim().equals(resource.etag);
+        }
+        long date = dateHeader(req, "If-Range");
+        return date >= 0 && resource.lastModified / 1000 <= date / 1000;
+    }
+
+    private static long dateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static boolean matchesEtag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            //If-None-Match 使用弱比较
+            if (value.equals("*") || stripWeak(value).equals(stripWeak(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * 解析 Range 头
+     *
+     * @return {start, end}；范围不合法返回 null(416)；多段或无法识别时返回空数组，按完整内容返回
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                //bytes=-n：最后 n 个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * 解码 URL 中的 %xx，拒绝 .. 和反斜杠
+     */
+    private static String decode(String raw) {
+        String decoded;
+        try {
+            decoded = URI.create("/" + raw).getPath().substring(1);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (decoded.indexOf('\\') >= 0 || decoded.indexOf('\0') >= 0) {
+            return null;
+        }
+        for (String segment : decoded.split("/")) {
+            if (segment.equals("..")) {
+                return null;
+            }
+        }
+        return decoded;
+    }
+
+    private String contentType(String name) {
+        String type = servletContext != null ? servletContext.getMimeType(name) : null;
+        if (type == null) {
+            type = URLConnection.guessContentTypeFromName(name);
+        }
+        return type != null ? type : "application/octet-stream";
+    }
+
+    private static final class Mapping {
+        private final String prefix;
+        private final String location;
+
+        private Mapping(String prefix, String location) {
+            if (!location.startsWith(CLASSPATH_PREFIX) && !location.startsWith(FILE_PREFIX)) {
+                throw new IllegalArgumentException("Resource location must start with classpath: or file: " + location);
+            }
+            this.prefix = prefix;
+            this.location = location;
+        }
+
+        private boolean isClasspath() {
+            return location.startsWith(CLASSPATH_PREFIX);
+        }
+    }
+
+    /**
+     * 解析出的资源，content 不为 null 时表示已缓存在内存中
+     */
+    static final class Resource {
+        private final Path file;
+        private final URL url;
+        private final byte[] content;
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+        private final String contentType;
+
+        private Resource(Path file, URL url, byte[] content, long length, long lastModified, String contentType) {
+            this.file = file;
+            this.url = url;
+            this.content = content;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = "W/\"" + length + "-" + lastModified + "\"";
+            this.contentType = contentType;
+        }
+
+        long weight() {
+            return content != null ? content.length : 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.tianhy.mvcframework.returnvalue;
+
+import com.tianhy.mvcframework.view.ModelAndView;
+import org.nutz.json.Json;
+import org.nutz.json.JsonFormat;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * @Desc: 把POJO、Map、集合、数组序列化成 JSON
+ * <p>
+ * 字符串、数字等简单类型只在客户端要求 JSON 时才走这里，写成 JSON 字符串/数字。
+ * 通过线程复用的 Utf8StreamWriter 直接写到 ServletOutputStream，不生成完整的中间字符串。
+ * Iterator / Stream / Flow.Publisher 交给 StreamingReturnValueHandler 分块输出，ModelAndView 交给 ModelAndViewReturnValueHandler 渲染。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class JsonReturnValueHandler implements ReturnValueHandler {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final JsonFormat format;
+
+    public JsonReturnValueHandler() {
+        this(JsonFormat.compact());
+    }
+
+    public JsonReturnValueHandler(JsonFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public boolean supportsReturnType(Class<?> returnType) {
+        return !StreamingReturnValueHandler.isStreamingType(returnType) && !ModelAndView.class.isAssignableFrom(returnType);
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType(CONTENT_TYPE + ";charset=UTF-8");
+        Utf8StreamWriter writer = Utf8StreamWriter.forOutput(resp.getOutputStream());
+        try {
+            Json.toJson(writer, returnValue, format);
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+}
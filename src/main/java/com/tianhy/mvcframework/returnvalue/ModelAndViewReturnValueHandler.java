@@ -0,0 +1,66 @@
+package com.tianhy.mvcframework.returnvalue;
+
+import com.tianhy.mvcframework.view.ModelAndView;
+import com.tianhy.mvcframework.view.View;
+import com.tianhy.mvcframework.view.ViewResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @Desc: 处理 ModelAndView 返回值：按视图名依次询问 ViewResolver，再把模型渲染到响应
+ * <p>
+ * ModelAndView 中直接给了 View 时不经过解析器；所有解析器都不认识的视图名抛 IllegalStateException。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ModelAndViewReturnValueHandler implements ReturnValueHandler {
+
+    public static final String CONTENT_TYPE = "text/html";
+
+    private final List<ViewResolver> viewResolvers = new CopyOnWriteArrayList<>();
+
+    public void addViewResolver(ViewResolver viewResolver) {
+        viewResolvers.add(viewResolver);
+    }
+
+    @Override
+    public boolean supportsReturnType(Class<?> returnType) {
+        return ModelAndView.class.isAssignableFrom(returnType);
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        ModelAndView mav = (ModelAndView) returnValue;
+        View view = mav.getView() != null ? mav.getView() : resolveView(mav.getViewName());
+        view.render(mav.getModel(), req, resp);
+    }
+
+    private View resolveView(String viewName) throws IOException {
+        if (viewName == null) {
+            throw new IllegalStateException("ModelAndView has neither a view nor a view name");
+        }
+        for (ViewResolver resolver : viewResolvers) {
+            View view;
+            try {
+                view = resolver.resolveViewName(viewName);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to resolve view '" + viewName + "'", e);
+            }
+            if (view != null) {
+                return view;
+            }
+        }
+        throw new IllegalStateException("Could not resolve view '" + viewName + "'");
+    }
+}
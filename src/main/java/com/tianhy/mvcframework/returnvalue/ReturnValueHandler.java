@@ -0,0 +1,27 @@
+package com.tianhy.mvcframework.returnvalue;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * @Desc: 把controller方法的返回值写到响应
+ * <p>
+ * 容器中实现了该接口的bean会排在内置实现之前，按 Accept 头与 getContentType() 协商选出一个来处理。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface ReturnValueHandler {
+
+    /**
+     * 是否能处理该类型的返回值(返回值的运行时类型)
+     */
+    boolean supportsReturnType(Class<?> returnType);
+
+    /**
+     * 产生的响应类型，如 application/json，用于内容协商
+     */
+    String getContentType();
+
+    void handleReturnValue(Object returnValue, HttpServletRequest req, HttpServletResponse resp) throws IOException;
+}
@@ -0,0 +1,160 @@
+package com.tianhy.mvcframework.returnvalue;
+
+import com.tianhy.mvcframework.view.ViewResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Desc: 返回值处理链
+ * <p>
+ * 按返回值的运行时类型找出能处理它的 ReturnValueHandler(结果按类型缓存)，
+ * 再按 Accept 头做内容协商：q 值高的媒体类型优先，q 值相同取先出现的；一个媒体类型能匹配多个处理器时按注册顺序。
+ * 没有 Accept 头时取第一个，都不接受返回 406。
+ * 简单类型(字符串、数字等)优先按 text/plain 写出，只接受 JSON 的客户端拿到对应的 JSON 值。
+ * null 和 void 不写任何内容。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ReturnValueHandlers {
+
+    private final List<ReturnValueHandler> handlers = new ArrayList<>();
+
+    private final ConcurrentHashMap<Class<?>, ReturnValueHandler[]> candidatesCache = new ConcurrentHashMap<>();
+
+    private final ModelAndViewReturnValueHandler modelAndViewHandler = new ModelAndViewReturnValueHandler();
+
+    private final JsonReturnValueHandler jsonHandler = new JsonReturnValueHandler();
+
+    private final TextReturnValueHandler textHandler = new TextReturnValueHandler();
+
+    public ReturnValueHandlers() {
+        this(StreamingReturnValueHandler.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 内置：ModelAndView 视图渲染，流式 JSON 数组 / NDJSON，JSON，其次 text/plain
+     *
+     * @param streamBatchSize 流式输出每批的元素个数
+     */
+    public ReturnValueHandlers(int streamBatchSize) {
+        handlers.add(modelAndViewHandler);
+        handlers.add(new StreamingReturnValueHandler(StreamingReturnValueHandler.Format.JSON_ARRAY, streamBatchSize));
+        handlers.add(new StreamingReturnValueHandler(StreamingReturnValueHandler.Format.NDJSON, streamBatchSize));
+        handlers.add(jsonHandler);
+        handlers.add(textHandler);
+    }
+
+    /**
+     * 自定义处理器排在内置处理器之前
+     */
+    public void addHandler(ReturnValueHandler handler) {
+        int builtIn = 0;
+        while (builtIn < handlers.size() && !isBuiltIn(handlers.get(builtIn))) {
+            builtIn++;
+        }
+        handlers.add(builtIn, handler);
+        candidatesCache.clear();
+    }
+
+    /**
+     * 渲染 ModelAndView 时按添加顺序询问的视图解析器
+     */
+    public void addViewResolver(ViewResolver viewResolver) {
+        modelAndViewHandler.addViewResolver(viewResolver);
+    }
+
+    public void handleReturnValue(Object returnValue, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (returnValue == null || returnValue instanceof Void) {
+            return;
+        }
+        ReturnValueHandler[] candidates = candidatesCache.computeIfAbsent(returnValue.getClass(), this::findCandidates);
+        ReturnValueHandler handler = negotiate(candidates, req.getHeader("Accept"));
+        if (handler == null) {
+            resp.setStatus(HttpServletResponse.SC_NOT_ACCEPTABLE);
+            resp.getWriter().write("406 Not Acceptable!");
+            return;
+        }
+        handler.handleReturnValue(returnValue, req, resp);
+    }
+
+    private ReturnValueHandler[] findCandidates(Class<?> type) {
+        List<ReturnValueHandler> candidates = new ArrayList<>();
+        for (ReturnValueHandler handler : handlers) {
+            if (handler.supportsReturnType(type)) {
+                candidates.add(handler);
+            }
+        }
+        //简单类型没有 Accept 头或接受 text/* 时保持原来的文本输出
+        int json = candidates.indexOf(jsonHandler);
+        if (TextReturnValueHandler.isSimpleType(type) && json >= 0 && candidates.indexOf(textHandler) > json) {
+            candidates.remove(textHandler);
+            candidates.add(json, textHandler);
+        }
+        return candidates.toArray(new ReturnValueHandler[0]);
+    }
+
+    private static ReturnValueHandler negotiate(ReturnValueHandler[] candidates, String accept) {
+        if (candidates.length == 0) {
+            return null;
+        }
+        if (accept == null || accept.isEmpty()) {
+            return candidates[0];
+        }
+        ReturnValueHandler best = null;
+        double bestQuality = 0;
+        for (String range : accept.split(",")) {
+            double quality = quality(range);
+            if (quality <= bestQuality) {
+                continue;
+            }
+            String mediaRange = mediaType(range);
+            for (ReturnValueHandler candidate : candidates) {
+                if (matches(mediaRange, candidate.getContentType())) {
+                    best = candidate;
+                    bestQuality = quality;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static String mediaType(String range) {
+        int semicolon = range.indexOf(';');
+        return (semicolon < 0 ? range : range.substring(0, semicolon)).trim().toLowerCase();
+    }
+
+    private static double quality(String range) {
+        int index = range.indexOf("q=");
+        if (index < 0) {
+            return 1;
+        }
+        int end = range.indexOf(';', index);
+        try {
+            return Double.parseDouble(range.substring(index + 2, end < 0 ? range.length() : end).trim());
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private static boolean matches(String mediaRange, String contentType) {
+        if (mediaRange.equals("*/*") || mediaRange.equals("*")) {
+            return true;
+        }
+        if (mediaRange.endsWith("/*")) {
+            return contentType.startsWith(mediaRange.substring(0, mediaRange.length() - 1));
+        }
+        return mediaRange.equals(contentType);
+    }
+
+    private static boolean isBuiltIn(ReturnValueHandler handler) {
+        return handler.getClass() == ModelAndViewReturnValueHandler.class
+                || handler.getClass() == StreamingReturnValueHandler.class || handler.getClass() == JsonReturnValueHandler.class
+                || handler.getClass() == TextReturnValueHandler.class;
+    }
+}
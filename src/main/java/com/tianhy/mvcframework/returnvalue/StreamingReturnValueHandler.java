@@ -0,0 +1,446 @@
+package com.tianhy.mvcframework.returnvalue;
+
+import org.nutz.json.Json;
+import org.nutz.json.JsonFormat;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.BaseStream;
+
+/**
+ * @Desc: 把 Stream / Iterator / Flow.Publisher 类型的返回值分块(chunked)写出，格式为 JSON 数组或 NDJSON
+ * <p>
+ * 每凑够 batchSize 个元素 flush 一次，不设置 Content-Length，容器自动使用 chunked 传输，内存占用只和批大小有关。
+ * <ul>
+ * <li>在容器线程上、且容器支持异步时：startAsync 并注册 WriteListener，只在 isReady() 时写下一批，
+ * 客户端读得慢就不再拉取数据源，也不占用容器线程；Publisher 按批 request(batchSize)，按需拉取</li>
+ * <li>其他情况(不支持异步，或已经在异步/执行器线程上)：在当前线程阻塞写，由阻塞的 write 形成背压</li>
+ * </ul>
+ * 响应已经提交后出错无法再返回错误码，只能记录异常并结束响应。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class StreamingReturnValueHandler implements ReturnValueHandler {
+
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    /**
+     * 配置项：每批写出的元素个数
+     */
+    public static final String BATCH_SIZE_PROPERTY = "response.stream.batchSize";
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * 输出格式
+     */
+    public enum Format {
+        /**
+         * [e1,e2,...]
+         */
+        JSON_ARRAY(JsonReturnValueHandler.CONTENT_TYPE),
+        /**
+         * 每行一个 JSON
+         */
+        NDJSON(NDJSON_CONTENT_TYPE);
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+    }
+
+    private static final Object END = new Object();
+
+    private static final Object NONE = new Object();
+
+    private final Format format;
+
+    private final int batchSize;
+
+    private final JsonFormat jsonFormat = JsonFormat.compact();
+
+    public StreamingReturnValueHandler(Format format, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(BATCH_SIZE_PROPERTY + " must be positive: " + batchSize);
+        }
+        this.format = format;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 是否是按元素流式输出的类型
+     */
+    public static boolean isStreamingType(Class<?> type) {
+        return Iterator.class.isAssignableFrom(type) || BaseStream.class.isAssignableFrom(type)
+                || Flow.Publisher.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public boolean supportsReturnType(Class<?> returnType) {
+        return isStreamingType(returnType);
+    }
+
+    @Override
+    public String getContentType() {
+        return format.contentType;
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType(format.contentType + ";charset=UTF-8");
+        if (req.isAsyncSupported() && !req.isAsyncStarted()) {
+            new NonBlockingWriter(createSource(returnValue), req.startAsync(req, resp), resp.getOutputStream()).start();
+            return;
+        }
+        writeBlocking(createSource(returnValue), resp.getOutputStream());
+    }
+
+    private void writeBlocking(ElementSource source, ServletOutputStream out) throws IOException {
+        Utf8StreamWriter writer = Utf8StreamWriter.forOutput(out);
+        try {
+            int count = 0;
+            Object element;
+            if (format == Format.JSON_ARRAY) {
+                writer.write('[');
+            }
+            while ((element = source.next(true)) != END) {
+                writeElement(writer, element, count++);
+                if (count % batchSize == 0) {
+                    writer.flush();
+                }
+            }
+            if (format == Format.JSON_ARRAY) {
+                writer.write(']');
+            }
+            writer.flush();
+        } finally {
+            writer.release();
+            source.close();
+        }
+    }
+
+    private void writeElement(Utf8StreamWriter writer, Object element, int index) throws IOException {
+        if (format == Format.JSON_ARRAY && index > 0) {
+            writer.write(',');
+        }
+        Json.toJson(writer, element, jsonFormat);
+        if (format == Format.NDJSON) {
+            writer.write('\n');
+        }
+    }
+
+    private ElementSource createSource(Object returnValue) {
+        if (returnValue instanceof Flow.Publisher) {
+            return new PublisherSource((Flow.Publisher<?>) returnValue, batchSize);
+        }
+        if (returnValue instanceof BaseStream) {
+            BaseStream<?, ?> stream = (BaseStream<?, ?>) returnValue;
+            return new IteratorSource(stream.iterator(), stream);
+        }
+        return new IteratorSource((Iterator<?>) returnValue, null);
+    }
+
+    /**
+     * 元素来源
+     */
+    private interface ElementSource {
+
+        /**
+         * @param block 没有可用元素时是否等待
+         * @return 下一个元素；END 表示结束；block 为 false 且暂时没有元素时返回 NONE
+         */
+        Object next(boolean block) throws IOException;
+
+        /**
+         * 有新元素或结束时通知(只对非阻塞模式有意义)
+         */
+        default void onAvailable(Runnable callback) {
+        }
+
+        void close();
+    }
+
+    private static final class IteratorSource implements ElementSource {
+        private final Iterator<?> iterator;
+        private final AutoCloseable resource;
+
+        private IteratorSource(Iterator<?> iterator, AutoCloseable resource) {
+            this.iterator = iterator;
+            this.resource = resource != null ? resource : iterator instanceof AutoCloseable ? (AutoCloseable) iterator : null;
+        }
+
+        @Override
+        public Object next(boolean block) {
+            return iterator.hasNext() ? iterator.next() : END;
+        }
+
+        @Override
+        public void close() {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 按批向 Publisher 请求数据：队列里的元素消费完了才 request 下一批，缓冲的元素不会超过 batchSize
+     */
+    private static final class PublisherSource implements ElementSource, Flow.Subscriber<Object> {
+        private final int batchSize;
+        private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+        private volatile boolean completed;
+        private volatile Runnable callback;
+        private int consumed;
+
+        @SuppressWarnings("unchecked")
+        private PublisherSource(Flow.Publisher<?> publisher, int batchSize) {
+            this.batchSize = batchSize;
+            ((Flow.Publisher<Object>) publisher).subscribe(this);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            queue.offer(item);
+            signal();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            signal();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            signal();
+        }
+
+        @Override
+        public Object next(boolean block) throws IOException {
+            while (true) {
+                Object item = queue.poll();
+                if (item != null) {
+                    if (++consumed == batchSize) {
+                        consumed = 0;
+                        subscription.request(batchSize);
+                    }
+                    return item;
+                }
+                if (error != null) {
+                    throw new IOException("Publisher failed", error);
+                }
+                if (completed && queue.isEmpty()) {
+                    return END;
+                }
+                if (!block) {
+                    return NONE;
+                }
+                synchronized (this) {
+                    if (queue.isEmpty() && !completed && error == null) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IOException("Interrupted while waiting for publisher", e);
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onAvailable(Runnable callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void close() {
+            if (subscription != null && !completed && error == null) {
+                subscription.cancel();
+            }
+        }
+
+        private void signal() {
+            synchronized (this) {
+                notifyAll();
+            }
+            Runnable callback = this.callback;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+
+    /**
+     * WriteListener 驱动的写出：只在 isReady() 时写下一批
+     * <p>
+     * onWritePossible(容器线程)和 Publisher 的通知(任意线程)都会调用 drain()，用 wip 计数保证同一时刻只有一个线程在写。
+     */
+    private final class NonBlockingWriter implements WriteListener, AsyncListener {
+        private final ElementSource source;
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream out;
+        private final BatchBuffer batch = new BatchBuffer();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private int count;
+        private boolean started;
+        private boolean finished;
+        private boolean needFlush;
+
+        private NonBlockingWriter(ElementSource source, AsyncContext asyncContext, ServletOutputStream out) {
+            this.source = source;
+            this.asyncContext = asyncContext;
+            this.out = out;
+        }
+
+        private void start() {
+            //数据源可能是无限的，不设超时
+            asyncContext.setTimeout(0);
+            asyncContext.addListener(this);
+            source.onAvailable(this::drain);
+            out.setWriteListener(this);
+        }
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            t.printStackTrace();
+            finish();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                try {
+                    writeReady();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    finish();
+                    return;
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void writeReady() throws IOException {
+            while (!done.get() && out.isReady()) {
+                if (needFlush) {
+                    needFlush = false;
+                    out.flush();
+                    continue;
+                }
+                if (finished) {
+                    finish();
+                    return;
+                }
+                if (!fillBatch()) {
+                    //Publisher 暂时没有数据，等它通知
+                    return;
+                }
+                batch.writeTo(out);
+                needFlush = true;
+            }
+        }
+
+        /**
+         * @return 是否有内容要写
+         */
+        private boolean fillBatch() throws IOException {
+            batch.reset();
+            Utf8StreamWriter writer = Utf8StreamWriter.forOutput(batch);
+            try {
+                if (!started) {
+                    started = true;
+                    if (format == Format.JSON_ARRAY) {
+                        writer.write('[');
+                    }
+                }
+                for (int i = 0; i < batchSize; i++) {
+                    Object element = source.next(false);
+                    if (element == NONE) {
+                        break;
+                    }
+                    if (element == END) {
+                        finished = true;
+                        if (format == Format.JSON_ARRAY) {
+                            writer.write(']');
+                        }
+                        break;
+                    }
+                    writeElement(writer, element, count++);
+                }
+                writer.drain();
+            } finally {
+                writer.release();
+            }
+            return batch.size() > 0 || finished;
+        }
+
+        private void finish() {
+            if (done.compareAndSet(false, true)) {
+                source.close();
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * 可复用的批缓冲区，writeTo 一次写出整批
+     */
+    private static final class BatchBuffer extends ByteArrayOutputStream {
+        private BatchBuffer() {
+            super(8192);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.tianhy.mvcframework.returnvalue;
+
+import com.tianhy.mvcframework.view.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * @Desc: 以 text/plain 写出返回值的 toString()
+ * <p>
+ * 字符串、数字、布尔、字符、枚举默认走这里，客户端只接受 JSON 时交给 JsonReturnValueHandler；
+ * 其他对象只有客户端不接受 JSON 时才会退回到这里，ModelAndView 除外。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class TextReturnValueHandler implements ReturnValueHandler {
+
+    public static final String CONTENT_TYPE = "text/plain";
+
+    @Override
+    public boolean supportsReturnType(Class<?> returnType) {
+        return !ModelAndView.class.isAssignableFrom(returnType);
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (resp.getContentType() == null) {
+            resp.setContentType(CONTENT_TYPE + ";charset=UTF-8");
+        }
+        resp.getWriter().write(returnValue.toString());
+    }
+
+    /**
+     * 直接 toString() 输出的简单类型
+     */
+    static boolean isSimpleType(Class<?> type) {
+        return CharSequence.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type)
+                || type == Boolean.class || type == Character.class || type.isEnum() || type.isPrimitive();
+    }
+}
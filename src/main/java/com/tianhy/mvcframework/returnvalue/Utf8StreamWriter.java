@@ -0,0 +1,160 @@
+package com.tianhy.mvcframework.returnvalue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * @Desc: 直接把字符编码成 UTF-8 写到 OutputStream 的 Writer
+ * <p>
+ * 每个线程复用一个实例和它的字节缓冲区，序列化时不再为每个响应分配 OutputStreamWriter / StreamEncoder。
+ * 用法：forOutput(out) 取得，写完 flush()，最后 release() 解除与 out 的关联。
+ * close() 只刷出缓冲区，不会关闭底层的流。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class Utf8StreamWriter extends Writer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<Utf8StreamWriter> CACHE = ThreadLocal.withInitial(Utf8StreamWriter::new);
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int count;
+
+    /**
+     * 上一次写入末尾落单的高位代理字符
+     */
+    private char highSurrogate;
+
+    private OutputStream out;
+
+    private Utf8StreamWriter() {
+    }
+
+    /**
+     * 取当前线程的实例，并指向 out
+     */
+    public static Utf8StreamWriter forOutput(OutputStream out) {
+        Utf8StreamWriter writer = CACHE.get();
+        if (writer.out != null) {
+            //嵌套使用(同一线程上还没有release)，不能复用
+            writer = new Utf8StreamWriter();
+        }
+        writer.out = out;
+        writer.count = 0;
+        writer.highSurrogate = 0;
+        return writer;
+    }
+
+    /**
+     * 解除与底层流的关联，未刷出的数据会被丢弃
+     */
+    public void release() {
+        out = null;
+        count = 0;
+        highSurrogate = 0;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++) {
+            encode(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++) {
+            encode(str.charAt(i));
+        }
+    }
+
+    /**
+     * 写入已经编码好的 UTF-8 字节，比如模板编译时编码好的静态文本，直接拷贝进缓冲区，放不下时先刷出
+     */
+    public void writeUtf8(byte[] bytes) throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            if (count > BUFFER_SIZE - 4) {
+                drain();
+            }
+            buffer[count++] = '?';
+        }
+        if (bytes.length > BUFFER_SIZE - count) {
+            drain();
+            if (bytes.length > BUFFER_SIZE) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    /**
+     * 缓冲区写到底层流，不调用底层流的 flush
+     */
+    public void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            flush();
+        }
+    }
+
+    private void encode(char c) throws IOException {
+        if (count > BUFFER_SIZE - 4) {
+            drain();
+        }
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            //落单的代理字符按 '?' 输出，和 JDK 编码器的替换行为一致
+            buffer[count++] = '?';
+            if (count > BUFFER_SIZE - 4) {
+                drain();
+            }
+        }
+        if (c < 0x80) {
+            buffer[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[count++] = '?';
+        } else {
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+}
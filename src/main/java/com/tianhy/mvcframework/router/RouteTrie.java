@@ -0,0 +1,425 @@
+package com.tianhy.mvcframework.router;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * @Desc: 按路径段(segment)组织的路由前缀树
+ * <p>
+ * 纯字面量的段放在 hash 子节点中，查找时沿着路径逐段下探，代价只与路径长度有关；
+ * 整段是 {name} 或 {name:regex} 的路径变量作为变量子节点，匹配任意一段(或满足约束的一段)，
+ * 查找时只记录变量在路径中的起止位置，整条路由匹配成功后才截取出变量值；
+ * 从第一个含正则元字符的段开始，剩余部分编译成一个 Pattern 挂在该节点上作为兜底，
+ * 只有字面量和变量分支都匹配失败时才会去跑正则。
+ * <p>
+ * 匹配顺序是确定的：同一层上 字面量 > 带约束的变量(按约束字符串排序) > 不带约束的变量 > 兜底正则(按正则字符串排序)；
+ * 越深的节点越优先。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class RouteTrie<T> {
+
+    /**
+     * 正则元字符，段中只要出现其中一个，就不能当作字面量
+     */
+    private static final String REGEX_META_CHARS = "\\.[]{}()*+?^$|";
+
+    private final Node<T> root = new Node<>();
+
+    private int size;
+
+    /**
+     * 所有路由中路径变量个数的最大值，调用方按它分配存放变量的数组
+     */
+    private int maxVariables;
+
+    /**
+     * 注册路由
+     *
+     * @param path  规范化之后的路径，以 / 开头，可以包含 {name} / {name:regex} 形式的整段路径变量
+     * @param value 路由对应的值
+     */
+    public void add(String path, T value) {
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException("Route must start with '/': " + path);
+        }
+        List<String> segments = splitSegments(path);
+        Node<T> node = root;
+        int consumed = 0;
+        int offset = 0;
+        int variables = 0;
+        //顶层的 | 会让按段拆分失去意义，整条路由作为根节点的兜底正则
+        if (!hasTopLevelAlternation(segments)) {
+            for (String segment : segments) {
+                Variable variable = Variable.parse(segment);
+                if (variable != null) {
+                    node = node.variableChildOrCreate(variable.constraint);
+                    variables++;
+                } else if (isLiteral(segment)) {
+                    node = node.childOrCreate(segment);
+                } else {
+                    break;
+                }
+                offset += segment.length() + 1;
+                consumed++;
+            }
+        }
+
+        if (consumed == segments.size()) {
+            if (node.value != null) {
+                throw new IllegalStateException("Ambiguous mapping: " + path + " is already mapped to " + node.value);
+            }
+            node.value = value;
+        } else {
+            for (int i = consumed; i < segments.size(); i++) {
+                if (Variable.parse(segments.get(i)) != null) {
+                    throw new IllegalArgumentException("Path variable can not follow a regex segment: " + path);
+                }
+            }
+            node.addPattern(new PatternRoute<>(path.substring(offset), value));
+        }
+        maxVariables = Math.max(maxVariables, variables);
+        size++;
+    }
+
+    /**
+     * 查找路由
+     *
+     * @param path 规范化之后的请求路径，以 / 开头
+     * @return 匹配到的值，没有则返回 null
+     */
+    public T lookup(String path) {
+        return lookup(path, null);
+    }
+
+    /**
+     * 查找路由并取出路径变量
+     *
+     * @param path      规范化之后的请求路径，以 / 开头
+     * @param variables 按变量在模板中出现的顺序填入原始(未解码)的变量值，长度不小于 getMaxVariables()；为 null 时不取变量
+     * @return 匹配到的值，没有则返回 null
+     */
+    public T lookup(String path, String[] variables) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        //每个变量的起止位置，最后一格存匹配到的路由的变量个数
+        int[] bounds = variables != null && maxVariables > 0 ? new int[maxVariables * 2 + 1] : null;
+        T value = find(root, path, 0, 0, bounds);
+        if (value != null && bounds != null) {
+            int count = bounds[bounds.length - 1];
+            for (int i = 0; i < count; i++) {
+                variables[i] = path.substring(bounds[i * 2], bounds[i * 2 + 1]);
+            }
+        }
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMaxVariables() {
+        return maxVariables;
+    }
+
+    /**
+     * 是否每一段都是字面量(没有路径变量和正则)，这样的路由只能匹配与它完全相同的路径
+     */
+    public static boolean isLiteralRoute(String path) {
+        for (String segment : splitSegments(path)) {
+            if (!isLiteral(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 模板中的路径变量名，按出现顺序
+     */
+    public static List<String> variableNames(String path) {
+        List<String> names = new ArrayList<>();
+        for (String segment : splitSegments(path)) {
+            Variable variable = Variable.parse(segment);
+            if (variable != null) {
+                names.add(variable.name);
+            }
+        }
+        return names;
+    }
+
+    private T find(Node<T> node, String path, int offset, int variableIndex, int[] bounds) {
+        if (offset >= path.length()) {
+            if (node.value != null) {
+                return matched(node.value, variableIndex, bounds);
+            }
+        } else {
+            int start = offset + 1;
+            int end = segmentEnd(path, start);
+            if (node.children != null) {
+                Node<T> child = node.children.get(path.substring(start, end));
+                if (child != null) {
+                    T found = find(child, path, end, variableIndex, bounds);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+            }
+            //字面量没有命中，再按顺序试变量，变量不匹配空段
+            if (node.variables != null && end > start) {
+                for (VariableChild<T> variable : node.variables) {
+                    if (!variable.matches(path, start, end)) {
+                        continue;
+                    }
+                    if (bounds != null) {
+                        bounds[variableIndex * 2] = start;
+                        bounds[variableIndex * 2 + 1] = end;
+                    }
+                    T found = find(variable.node, path, end, variableIndex + 1, bounds);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+            }
+        }
+
+        //字面量和变量分支都没有命中，才用剩余路径去匹配本节点上的正则
+        if (node.patterns != null) {
+            String rest = path.substring(offset);
+            for (PatternRoute<T> route : node.patterns) {
+                if (route.pattern.matcher(rest).matches()) {
+                    return matched(route.value, variableIndex, bounds);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static <T> T matched(T value, int variables, int[] bounds) {
+        if (bounds != null) {
+            bounds[bounds.length - 1] = variables;
+        }
+        return value;
+    }
+
+    private static List<String> splitSegments(String path) {
+        List<String> segments = new ArrayList<>();
+        int offset = 0;
+        while (offset < path.length()) {
+            int start = offset + 1;
+            int end = templateSegmentEnd(path, start);
+            segments.add(path.substring(start, end));
+            offset = end;
+        }
+        return segments;
+    }
+
+    /**
+     * 注册时拆分段，变量约束里的 / 不算分隔符
+     */
+    private static int templateSegmentEnd(String path, int start) {
+        int depth = 0;
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (c == '/' && depth == 0) {
+                return i;
+            }
+        }
+        return path.length();
+    }
+
+    private static boolean hasTopLevelAlternation(List<String> segments) {
+        for (String segment : segments) {
+            if (segment.indexOf('|') >= 0 && Variable.parse(segment) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.length() : end;
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(segment.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 整段的路径变量 {name} 或 {name:regex}；name 以字母或下划线开头，所以 {2} 这样的正则量词不会被当成变量
+     */
+    private static final class Variable {
+        private final String name;
+        private final String constraint;
+
+        private Variable(String name, String constraint) {
+            this.name = name;
+            this.constraint = constraint;
+        }
+
+        private static Variable parse(String segment) {
+            if (segment.length() < 3 || segment.charAt(0) != '{' || segment.charAt(segment.length() - 1) != '}') {
+                return null;
+            }
+            int i = 1;
+            char first = segment.charAt(i);
+            if (!Character.isLetter(first) && first != '_') {
+                return null;
+            }
+            while (i < segment.length() - 1 && (Character.isLetterOrDigit(segment.charAt(i)) || segment.charAt(i) == '_')) {
+                i++;
+            }
+            String name = segment.substring(1, i);
+            if (i == segment.length() - 1) {
+                return new Variable(name, null);
+            }
+            if (segment.charAt(i) != ':' || i + 1 >= segment.length() - 1) {
+                return null;
+            }
+            return new Variable(name, segment.substring(i + 1, segment.length() - 1));
+        }
+    }
+
+    private static final class Node<T> {
+        private Map<String, Node<T>> children;
+        private List<VariableChild<T>> variables;
+        private List<PatternRoute<T>> patterns;
+        private T value;
+
+        private Node<T> childOrCreate(String segment) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(segment, k -> new Node<>());
+        }
+
+        /**
+         * 约束相同的变量(变量名可以不同)共用一个子节点；带约束的排在前面，按约束字符串排序
+         */
+        private Node<T> variableChildOrCreate(String constraint) {
+            if (variables == null) {
+                variables = new ArrayList<>();
+            }
+            int i = 0;
+            while (i < variables.size()) {
+                VariableChild<T> existing = variables.get(i);
+                int cmp = compareConstraint(existing.constraint, constraint);
+                if (cmp == 0) {
+                    return existing.node;
+                }
+                if (cmp > 0) {
+                    break;
+                }
+                i++;
+            }
+            VariableChild<T> child = new VariableChild<>(constraint);
+            variables.add(i, child);
+            return child.node;
+        }
+
+        private static int compareConstraint(String a, String b) {
+            if (a == null || b == null) {
+                return a == null ? (b == null ? 0 : 1) : -1;
+            }
+            return a.compareTo(b);
+        }
+
+        private void addPattern(PatternRoute<T> route) {
+            if (patterns == null) {
+                patterns = new ArrayList<>();
+            }
+            int i = 0;
+            while (i < patterns.size()) {
+                int cmp = patterns.get(i).regex.compareTo(route.regex);
+                if (cmp == 0) {
+                    throw new IllegalStateException("Ambiguous mapping: " + route.regex + " is already mapped to " + patterns.get(i).value);
+                }
+                if (cmp > 0) {
+                    break;
+                }
+                i++;
+            }
+            patterns.add(i, route);
+        }
+    }
+
+    /**
+     * 变量子节点；常见的约束(\d+、[0-9]+、\w+)直接按字符判断，其他约束才用正则
+     */
+    private static final class VariableChild<T> {
+        private static final int ANY = 0;
+        private static final int DIGITS = 1;
+        private static final int WORD = 2;
+        private static final int REGEX = 3;
+
+        private final String constraint;
+        private final int kind;
+        private final Pattern pattern;
+        private final Node<T> node = new Node<>();
+
+        private VariableChild(String constraint) {
+            this.constraint = constraint;
+            if (constraint == null) {
+                kind = ANY;
+            } else if ("\\d+".equals(constraint) || "[0-9]+".equals(constraint)) {
+                kind = DIGITS;
+            } else if ("\\w+".equals(constraint)) {
+                kind = WORD;
+            } else {
+                kind = REGEX;
+            }
+            this.pattern = kind == REGEX ? Pattern.compile(constraint) : null;
+        }
+
+        private boolean matches(String path, int start, int end) {
+            switch (kind) {
+                case ANY:
+                    return true;
+                case DIGITS:
+                    for (int i = start; i < end; i++) {
+                        char c = path.charAt(i);
+                        if (c < '0' || c > '9') {
+                            return false;
+                        }
+                    }
+                    return true;
+                case WORD:
+                    for (int i = start; i < end; i++) {
+                        char c = path.charAt(i);
+                        if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')) {
+                            return false;
+                        }
+                    }
+                    return true;
+                default:
+                    return pattern.matcher(path).region(start, end).matches();
+            }
+        }
+    }
+
+    private static final class PatternRoute<T> {
+        private final String regex;
+        private final Pattern pattern;
+        private final T value;
+
+        private PatternRoute(String regex, T value) {
+            this.regex = regex;
+            this.pattern = Pattern.compile(regex);
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tianhy.mvcframework.scanner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @Desc: 从 class 文件字节中读出的类元信息，读取时不加载类
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ClassMetadata {
+
+    private final String className;
+    private final String superClassName;
+    private final List<String> interfaceNames;
+    /**
+     * 类上的运行期可见注解的类名
+     */
+    private final Set<String> annotationTypes;
+
+    public ClassMetadata(String className, String superClassName, List<String> interfaceNames, Set<String> annotationTypes) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = Collections.unmodifiableList(interfaceNames);
+        this.annotationTypes = Collections.unmodifiableSet(annotationTypes);
+    }
+
+    public boolean hasAnnotation(String annotationType) {
+        return annotationTypes.contains(annotationType);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    public Set<String> getAnnotationTypes() {
+        return annotationTypes;
+    }
+
+    @Override
+    public String toString() {
+        return className + annotationTypes;
+    }
+}
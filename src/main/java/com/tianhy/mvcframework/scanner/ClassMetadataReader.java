@@ -0,0 +1,163 @@
+package com.tianhy.mvcframework.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @Desc: 直接解析 class 文件格式，拿到类名、父类、接口和类上的 RuntimeVisibleAnnotations
+ * <p>
+ * 只读常量池和类级别的属性，字段和方法整体跳过，不会触发类加载和静态初始化。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class ClassMetadataReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private ClassMetadataReader() {
+    }
+
+    public static ClassMetadata read(InputStream is) throws IOException {
+        //先整体读入内存，保证 skipBytes 一定能跳过足够的字节
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(is.readAllBytes()));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        //minor_version, major_version
+        in.skipBytes(4);
+
+        //常量池，下标从1开始
+        int cpCount = in.readUnsignedShort();
+        String[] utf8 = new String[cpCount];
+        int[] classNameIndex = new int[cpCount];
+        for (int i = 1; i < cpCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7:
+                    classNameIndex[i] = in.readUnsignedShort();
+                    break;
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    in.skipBytes(2);
+                    break;
+                case 15:
+                    in.skipBytes(3);
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    in.skipBytes(4);
+                    break;
+                case 5:
+                case 6:
+                    //long和double占两个槽位
+                    in.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        //access_flags
+        in.skipBytes(2);
+        String className = internalToClassName(utf8[classNameIndex[in.readUnsignedShort()]]);
+        int superIndex = in.readUnsignedShort();
+        String superClassName = superIndex == 0 ? null : internalToClassName(utf8[classNameIndex[superIndex]]);
+        int interfaceCount = in.readUnsignedShort();
+        List<String> interfaces = new ArrayList<>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces.add(internalToClassName(utf8[classNameIndex[in.readUnsignedShort()]]));
+        }
+
+        //fields 和 methods 结构相同，整体跳过
+        skipMembers(in);
+        skipMembers(in);
+
+        Set<String> annotations = new HashSet<>();
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if ("RuntimeVisibleAnnotations".equals(name)) {
+                int num = in.readUnsignedShort();
+                for (int j = 0; j < num; j++) {
+                    annotations.add(descriptorToClassName(utf8[in.readUnsignedShort()]));
+                    skipElementValuePairs(in);
+                }
+            } else {
+                in.skipBytes(length);
+            }
+        }
+        return new ClassMetadata(className, superClassName, interfaces, annotations);
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            //access_flags, name_index, descriptor_index
+            in.skipBytes(6);
+            int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                in.skipBytes(2);
+                in.skipBytes(in.readInt());
+            }
+        }
+    }
+
+    private static void skipElementValuePairs(DataInputStream in) throws IOException {
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            in.skipBytes(2);
+            skipElementValue(in);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                in.skipBytes(4);
+                break;
+            case '@':
+                in.skipBytes(2);
+                skipElementValuePairs(in);
+                break;
+            case '[':
+                int num = in.readUnsignedShort();
+                for (int i = 0; i < num; i++) {
+                    skipElementValue(in);
+                }
+                break;
+            default:
+                //B C D F I J S Z s c
+                in.skipBytes(2);
+                break;
+        }
+    }
+
+    private static String internalToClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    private static String descriptorToClassName(String descriptor) {
+        //Lcom/tianhy/mvcframework/annotation/MyService;
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+}
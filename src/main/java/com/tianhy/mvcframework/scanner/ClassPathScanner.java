@@ -0,0 +1,148 @@
+package com.tianhy.mvcframework.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @Desc: 类路径扫描器
+ * <p>
+ * 同时支持展开的目录和 jar/war 包：目录用 Files.walk，jar 用 JarFile 遍历条目，
+ * 读取 class 文件字节解析注解，并行处理，只把带有指定注解的类返回给调用方，
+ * 扫描过程中不加载任何类。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ClassPathScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ClassLoader classLoader;
+
+    /**
+     * 感兴趣的注解类名，类上带有其中任意一个才作为候选
+     */
+    private final Set<String> annotationTypes;
+
+    private final AtomicInteger scannedCount = new AtomicInteger();
+
+    /**
+     * 既不是目录也不是 jar 的类路径位置，没有扫描
+     */
+    private final List<URL> skippedLocations = new ArrayList<>();
+
+    public ClassPathScanner(ClassLoader classLoader, Collection<String> annotationTypes) {
+        this.classLoader = classLoader;
+        this.annotationTypes = new HashSet<>(annotationTypes);
+    }
+
+    /**
+     * 扫描包路径下的所有类
+     *
+     * @param basePackage 包名，如 com.tianhy.demo
+     * @return 带有指定注解的类的元信息，按类名排序
+     */
+    public List<ClassMetadata> scan(String basePackage) throws IOException {
+        String packagePath = basePackage.replace('.', '/');
+        List<ClassMetadata> candidates = new ArrayList<>();
+        Enumeration<URL> urls = classLoader.getResources(packagePath);
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            if ("file".equals(url.getProtocol())) {
+                candidates.addAll(scanDirectory(url, basePackage));
+            } else {
+                URLConnection connection = url.openConnection();
+                if (connection instanceof JarURLConnection) {
+                    candidates.addAll(scanJar((JarURLConnection) connection, packagePath));
+                } else {
+                    skippedLocations.add(url);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparing(ClassMetadata::getClassName));
+        return candidates;
+    }
+
+    /**
+     * 已经解析过的 class 文件数量
+     */
+    public int getScannedCount() {
+        return scannedCount.get();
+    }
+
+    /**
+     * 因为协议不支持而跳过的类路径位置，由调用方报告
+     */
+    public List<URL> getSkippedLocations() {
+        return Collections.unmodifiableList(skippedLocations);
+    }
+
+    private List<ClassMetadata> scanDirectory(URL url, String basePackage) throws IOException {
+        Path root;
+        try {
+            root = Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid classpath url " + url, e);
+        }
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(root)) {
+            classFiles = paths.filter(p -> p.getFileName().toString().endsWith(CLASS_SUFFIX))
+                    .collect(Collectors.toList());
+        }
+        return classFiles.parallelStream()
+                .map(p -> {
+                    try (InputStream is = Files.newInputStream(p)) {
+                        return readCandidate(is);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to read " + p, e);
+                    }
+                })
+                .filter(Objects::nonNull)
+                .filter(m -> m.getClassName().startsWith(basePackage + "."))
+                .collect(Collectors.toList());
+    }
+
+    private List<ClassMetadata> scanJar(JarURLConnection connection, String packagePath) throws IOException {
+        connection.setUseCaches(false);
+        try (JarFile jarFile = connection.getJarFile()) {
+            String prefix = packagePath + "/";
+            List<JarEntry> entries = jarFile.stream()
+                    .filter(e -> !e.isDirectory() && e.getName().startsWith(prefix) && e.getName().endsWith(CLASS_SUFFIX))
+                    .collect(Collectors.toList());
+            return entries.parallelStream()
+                    .map(e -> {
+                        try (InputStream is = jarFile.getInputStream(e)) {
+                            return readCandidate(is);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException("Failed to read " + e.getName(), ex);
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private ClassMetadata readCandidate(InputStream is) throws IOException {
+        ClassMetadata metadata = ClassMetadataReader.read(is);
+        scannedCount.incrementAndGet();
+        for (String annotationType : metadata.getAnnotationTypes()) {
+            if (annotationTypes.contains(annotationType)) {
+                return metadata;
+            }
+        }
+        return null;
+    }
+}
@@ -1,20 +1,58 @@
 package com.tianhy.mvcframework.servletversion2;
 
 import com.tianhy.mvcframework.annotation.*;
+import com.tianhy.mvcframework.aop.Advisor;
+import com.tianhy.mvcframework.aop.AopProxyFactory;
+import com.tianhy.mvcframework.aop.InterceptorChainFactory;
+import com.tianhy.mvcframework.aop.MethodInterceptor;
+import com.tianhy.mvcframework.async.AsyncRequestProcessor;
+import com.tianhy.mvcframework.async.OffloadingDispatcher;
+import com.tianhy.mvcframework.beans.*;
+import com.tianhy.mvcframework.cache.CacheManager;
+import com.tianhy.mvcframework.cache.CacheStats;
+import com.tianhy.mvcframework.cache.CacheInterceptor;
+import com.tianhy.mvcframework.cache.ResponseCache;
+import com.tianhy.mvcframework.bind.ArgumentResolver;
+import com.tianhy.mvcframework.bind.DispatchPlan;
+import com.tianhy.mvcframework.bind.PayloadTooLargeException;
+import com.tianhy.mvcframework.bind.RequestBodyBinder;
+import com.tianhy.mvcframework.convert.ConversionService;
+import com.tianhy.mvcframework.convert.Converter;
+import com.tianhy.mvcframework.handler.HandlerAdapter;
+import com.tianhy.mvcframework.handler.HandlerMapping;
+import com.tianhy.mvcframework.handler.RouteHandlerMapping;
+import com.tianhy.mvcframework.index.ComponentIndex;
+import com.tianhy.mvcframework.invoke.HandlerInvoker;
+import com.tianhy.mvcframework.invoke.HandlerInvokers;
+import com.tianhy.mvcframework.invoke.InterceptingHandlerInvoker;
+import com.tianhy.mvcframework.jfr.BeanLifecycleEvents;
+import com.tianhy.mvcframework.jfr.DispatchTracer;
+import com.tianhy.mvcframework.metrics.MetricsRegistry;
+import com.tianhy.mvcframework.metrics.RouteMetrics;
+import com.tianhy.mvcframework.resource.ResourceHandler;
+import com.tianhy.mvcframework.returnvalue.ReturnValueHandler;
+import com.tianhy.mvcframework.returnvalue.ReturnValueHandlers;
+import com.tianhy.mvcframework.returnvalue.StreamingReturnValueHandler;
+import com.tianhy.mvcframework.scanner.ClassMetadata;
+import com.tianhy.mvcframework.scanner.ClassPathScanner;
+import com.tianhy.mvcframework.startup.StartupProfiler;
+import com.tianhy.mvcframework.view.TemplateViewResolver;
+import com.tianhy.mvcframework.view.ViewResolver;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
-import org.nutz.json.Json;
 
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.*;
 import java.io.*;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.net.URL;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 /**
  * @Desc: 入口
@@ -22,6 +60,9 @@ import java.util.regex.Pattern;
  * @CreateTime: 2019/3/27
  **/
 public class DispatcherServlet extends HttpServlet {
+
+    private static final String FRAMEWORK_PACKAGE = "com.tianhy.mvcframework.";
+
     public DispatcherServlet() {
     }
 
@@ -31,14 +72,34 @@ public class DispatcherServlet extends HttpServlet {
     private Properties contextConfig = new Properties();
 
     /**
-     * 扫描到的所有类名
+     * 扫描到的所有类名(只包含加了@MyController/@MyService的类)
      */
     private List<String> classNames = new ArrayList<>();
 
     /**
-     * IOC容器
+     * 从组件索引读到的组件信息：类名 -> 组件；没有使用索引(扫描类路径)时为 null
      */
-    private Map<String, Object> ioc = new HashMap<>();
+    private Map<String, ComponentIndex.Component> indexedComponents;
+
+    /**
+     * 扫描过的class文件数量
+     */
+    private int scannedClassCount;
+
+    /**
+     * 实际加载的类数量
+     */
+    private int loadedClassCount;
+
+    /**
+     * IOC容器，只在refresh过程中使用，登记完所有bean后冻结成beanFactory
+     */
+    private BeanFactoryBuilder ioc = new BeanFactoryBuilder();
+
+    /**
+     * 冻结后的容器，依赖注入和HandlerMapping都从这里取bean，refresh结束后随DispatchContext发布出去
+     */
+    private DefaultBeanFactory beanFactory;
 
     /**
      * URL 与 method 对应关系
@@ -47,6 +108,90 @@ public class DispatcherServlet extends HttpServlet {
 
     private List<Handler> handlerMapping = new ArrayList<Handler>();
 
+    /**
+     * 路由表：固定路径精确匹配，其余走按路径段编译的路由树，getHandler 只查它
+     */
+    private RouteHandlerMapping<Handler> router = new RouteHandlerMapping<>();
+
+    /**
+     * 容器中的自定义 HandlerMapping，内置路由表没有命中时按顺序询问
+     */
+    private List<HandlerMapping> handlerMappings = new ArrayList<>();
+
+    /**
+     * 容器中的 HandlerAdapter，处理自定义映射返回的 handler
+     */
+    private List<HandlerAdapter> handlerAdapters = new ArrayList<>();
+
+    /**
+     * 类型转换注册表，Handler 初始化时为每个参数解析好转换器
+     */
+    private ConversionService conversionService = new ConversionService();
+
+    /**
+     * 容器中的自定义参数解析器，Handler 初始化时为每个形参选定
+     */
+    private List<ArgumentResolver> argumentResolvers = new ArrayList<>();
+
+    /**
+     * 返回值处理链
+     */
+    private ReturnValueHandlers returnValueHandlers = new ReturnValueHandlers();
+
+    /**
+     * @MyCacheable 使用的缓存
+     */
+    private CacheManager cacheManager = new CacheManager();
+
+    /**
+     * 本次refresh登记的 @MyService bean定义，用于启动时检查 @MyCacheEvict
+     */
+    private List<BeanDefinition> serviceDefinitions = new ArrayList<>();
+
+    /**
+     * @MyAspect 切面，初始化时为handler和service方法算好拦截器数组
+     */
+    private InterceptorChainFactory interceptorChains = new InterceptorChainFactory();
+
+    /**
+     * 路由指标，metrics.enabled=false 时为 null
+     */
+    private MetricsRegistry metricsRegistry;
+
+    /**
+     * 本次refresh的启动记录，结束后保存在 startupReport 中
+     */
+    private StartupProfiler startupProfiler;
+
+    /**
+     * 以上字段都是refresh过程中的工作状态，由这把锁保护；
+     * 请求线程只读取下面这个volatile引用，拿到的是一份完整的、不再变化的快照
+     */
+    private final Object refreshLock = new Object();
+
+    private volatile DispatchContext context = DispatchContext.EMPTY;
+
+    /**
+     * 最近一次init/refresh的启动记录
+     */
+    private volatile StartupProfiler startupReport;
+
+    /**
+     * 处理返回CompletionStage/Callable的controller方法
+     */
+    private AsyncRequestProcessor asyncProcessor;
+
+    /**
+     * dispatcher.mode 为 executor/virtual 时，把请求转移到执行器上处理；platform 模式为 null
+     */
+    private OffloadingDispatcher offloadingDispatcher;
+
+    /**
+     * 静态资源，没有配置 resource.mappings 时为 null
+     */
+    private ResourceHandler resourceHandler;
+
+
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
@@ -55,102 +200,410 @@ public class DispatcherServlet extends HttpServlet {
 
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (offloadingDispatcher != null && req.isAsyncSupported()) {
+            offloadingDispatcher.dispatch(req, resp, this::processRequest);
+            return;
+        }
+        processRequest(req, resp);
+    }
+
+    private void processRequest(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        //request作用域的bean从当前线程绑定的请求中获取
+        RequestContextHolder.setRequest(req);
         try {
             doDispatch(req, resp);
+        } catch (PayloadTooLargeException e) {
+            writePayloadTooLarge(resp);
         } catch (Exception e) {
+            //惰性解析的请求体在controller里读超限，异常被调用器包装过
+            if (e instanceof InvocationTargetException && e.getCause() instanceof PayloadTooLargeException) {
+                writePayloadTooLarge(resp);
+                return;
+            }
             e.printStackTrace();
             resp.getWriter().write("500, ErrInfo :" + Arrays.toString(e.getStackTrace()));
+        } finally {
+            RequestContextHolder.resetRequest();
         }
     }
 
+    private static void writePayloadTooLarge(HttpServletResponse resp) throws IOException {
+        resp.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        resp.getWriter().write("413 Payload Too Large");
+    }
+
     @Override
     public void init(ServletConfig config) throws ServletException {
+        super.init(config);
+        StartupProfiler profiler = new StartupProfiler();
+        profiler.beginPhase("loadProperties");
         //1、加载配置文件
         doLoadProperties(config.getInitParameter("contextConfigLocation"));
+        profiler.endPhase();
+        asyncProcessor = new AsyncRequestProcessor(
+                Integer.parseInt(contextConfig.getProperty(AsyncRequestProcessor.THREADS_PROPERTY, "64")),
+                Long.parseLong(contextConfig.getProperty(AsyncRequestProcessor.TIMEOUT_PROPERTY, "30000")));
+        offloadingDispatcher = OffloadingDispatcher.create(contextConfig, profiler);
+        resourceHandler = ResourceHandler.create(contextConfig, this.getClass().getClassLoader(), getServletContext(), profiler);
+        refresh(Collections.<String, Object>emptyMap(), profiler);
+    }
+
+    @Override
+    public void destroy() {
+        if (asyncProcessor != null) {
+            asyncProcessor.shutdown();
+        }
+        if (offloadingDispatcher != null) {
+            offloadingDispatcher.shutdown();
+        }
+        if (context.metrics != null) {
+            context.metrics.unregisterMBeans();
+        }
+        super.destroy();
+    }
+
+    /**
+     * 重新构建容器和路由表
+     * 新的容器和路由表全部构建完成后一次性替换，正在处理的请求继续使用旧的快照，不会被阻塞
+     */
+    public void refresh() {
+        refresh(Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * 重新构建容器和路由表，并额外注册一些单例bean(在依赖注入之前注册，可以被注入)
+     *
+     * @param additionalBeans beanName -> 实例
+     */
+    public void refresh(Map<String, Object> additionalBeans) {
+        refresh(additionalBeans, new StartupProfiler());
+    }
+
+    private void refresh(Map<String, Object> additionalBeans, StartupProfiler profiler) {
+        synchronized (refreshLock) {
+            profiler.configure(contextConfig);
+            startupProfiler = profiler;
+            classNames = new ArrayList<>();
+            indexedComponents = null;
+            serviceDefinitions = new ArrayList<>();
+            ioc = new BeanFactoryBuilder();
+            handlerMapping = new ArrayList<>();
+            router = new RouteHandlerMapping<>();
+            handlerMappings = new ArrayList<>();
+            handlerAdapters = new ArrayList<>();
+            conversionService = new ConversionService();
+            argumentResolvers = new ArrayList<>();
+            cacheManager = new CacheManager();
+            interceptorChains = new InterceptorChainFactory();
+            metricsRegistry = MetricsRegistry.create(contextConfig);
+            returnValueHandlers = new ReturnValueHandlers(Integer.parseInt(contextConfig.getProperty(
+                    StreamingReturnValueHandler.BATCH_SIZE_PROPERTY, String.valueOf(StreamingReturnValueHandler.DEFAULT_BATCH_SIZE))));
+            scannedClassCount = 0;
+            loadedClassCount = 0;
+
+            doRefresh(additionalBeans);
+
+            DispatchContext previous = this.context;
+            this.context = new DispatchContext(beanFactory, router, handlerMappings, handlerAdapters, handlerMapping,
+                    returnValueHandlers, cacheManager, metricsRegistry);
+            //MBean 换成新路由表的指标
+            if (previous.metrics != null) {
+                previous.metrics.unregisterMBeans();
+            }
+            if (metricsRegistry != null) {
+                metricsRegistry.registerMBeans();
+            }
+            //工作状态不再需要，释放掉
+            classNames = null;
+            indexedComponents = null;
+            serviceDefinitions = null;
+            ioc = null;
+            beanFactory = null;
+            handlerMapping = null;
+            router = null;
+            handlerMappings = null;
+            handlerAdapters = null;
+            returnValueHandlers = null;
+            interceptorChains = null;
+            metricsRegistry = null;
+            startupProfiler = null;
+        }
+    }
+
+    private void doRefresh(Map<String, Object> additionalBeans) {
+        StartupProfiler profiler = startupProfiler;
+        profiler.beginPhase("scan");
         //2、扫描相关类
         doScannerClass(contextConfig.getProperty("scanPackage"));
+        profiler.beginPhase("instance");
         //3、初始化（实例化）扫描到的类，放入IOC
         doInstance();
-        //4、DI 依赖注入（自动依赖注入）
-        doAutowired();
+        checkCacheEvictions();
+        for (Map.Entry<String, Object> entry : additionalBeans.entrySet()) {
+            ioc.registerSingleton(entry.getKey(), entry.getValue());
+        }
+        //延迟创建的bean使用本次refresh的缓存和切面
+        CacheManager caches = cacheManager;
+        InterceptorChainFactory chains = interceptorChains;
+        beanFactory = ioc.build((definition, owner) -> createBean(definition, owner, caches, chains, profiler));
+        initAdvisors();
+        //4、DI 依赖注入（自动依赖注入），外部传入的单例已经实例化，只需要注入
+        doAutowired(additionalBeans.keySet());
+        instantiateSingletons();
+        System.out.println(" ioc : " + beanFactory.getSingletonInstances());
+        profiler.beginPhase("handlerMapping");
         //5、初始化HandlerMappping（URL与method的映射）
         initHandlerMapping();
+        profiler.setClassCounts(scannedClassCount, loadedClassCount);
+        profiler.finish();
 
+        System.out.println(profiler.summary());
+        String reportFile = contextConfig.getProperty(StartupProfiler.REPORT_FILE_PROPERTY);
+        if (StringUtils.isNotBlank(reportFile)) {
+            try {
+                profiler.writeReport(new File(reportFile.trim()));
+            } catch (IOException e) {
+                //报告写不出来不影响启动
+                e.printStackTrace();
+            }
+        }
+        startupReport = profiler;
+    }
+
+    /**
+     * 最近一次init/refresh的启动记录(各阶段耗时、bean耗时、路由表)
+     */
+    public StartupProfiler getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * 当前生效的容器
+     */
+    public BeanFactory getBeanFactory() {
+        return context.beanFactory;
     }
 
     //6、运行
-    private void doDispatch(HttpServletRequest req, HttpServletResponse resp) throws IOException, InvocationTargetException, IllegalAccessException {
+    private void doDispatch(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        //JFR 没有录制分发事件时 tracer 为 null
+        DispatchTracer tracer = DispatchTracer.start();
+        if (tracer == null) {
+            dispatch(req, resp, null);
+            return;
+        }
+        try {
+            dispatch(req, resp, tracer);
+        } finally {
+            tracer.end();
+        }
+    }
+
+    private void dispatch(HttpServletRequest req, HttpServletResponse resp, DispatchTracer tracer) throws Exception {
 
-        Handler handler = getHandler(req);
+        //整个请求只读这一次，之后即使发生refresh也用同一份容器和路由表
+        DispatchContext context = this.context;
+        long start = context.metrics != null ? System.nanoTime() : 0L;
+        String path = getLookupPath(req);
+        //有路由带路径变量时才分配，查找时按模板顺序填入变量的原始值
+        String[] pathVariables = context.maxVariables > 0 ? new String[context.maxVariables] : null;
+        Handler handler = getHandler(context, path, pathVariables);
         if (handler == null) {
+            //内置路由表没有命中，再问自定义的映射
+            if (!context.handlerMappings.isEmpty() && dispatchToAdapter(context, path, pathVariables, req, resp)) {
+                return;
+            }
+            if (context.metrics != null && context.metrics.isMetricsPath(path)) {
+                writeMetrics(context, resp);
+                return;
+            }
+            //没有对应的controller，再看是不是静态资源
+            if (resourceHandler != null && resourceHandler.handle(path, req, resp)) {
+                return;
+            }
+            if (context.metrics != null) {
+                context.metrics.recordUnmatched();
+            }
             resp.getWriter().write("404 Not Found!");
             return;
         }
+        if (tracer != null) {
+            tracer.resolved(handler.route, handler.method);
+        }
 
-        //拿到方法的形参列表
-        Class<?>[] methodParameterTypes = handler.getParamTypes();
+        RouteMetrics metrics = handler.metrics;
+        if (metrics == null) {
+            invokeHandler(context, handler, req, resp, pathVariables, tracer, null, 0L, 0L);
+            return;
+        }
+        metrics.requestStarted();
+        long lookedUp = 0L;
+        if (metrics.isPhasesEnabled()) {
+            lookedUp = System.nanoTime();
+            metrics.recordPhase(RouteMetrics.Phase.LOOKUP, lookedUp - start);
+        }
+        try {
+            invokeHandler(context, handler, req, resp, pathVariables, tracer, metrics, start, lookedUp);
+        } catch (Exception e) {
+            metrics.recordError(e);
+            metrics.requestFinished(System.nanoTime() - start);
+            throw e;
+        }
+    }
 
-        //存放形参的值
-        Object[] methodParamtersValues = new Object[methodParameterTypes.length];
+    /**
+     * 绑定参数、调用handler、写响应
+     * <p>
+     * metrics 不为 null 时计时；开启了分阶段计时时，每个阶段的结束时间就是下一个阶段的开始时间，一个请求只取5次时间戳，
+     * 否则只在开始和结束时各取一次。正常结束时在这里计入总耗时，转成异步处理的请求由AsyncResultHandler在结束时计入，异常由调用方计入
+     *
+     * @param pathVariables 路由树取出的路径变量，没有任何路由带变量时为 null
+     * @param tracer     JFR 分发事件，没有录制时为 null
+     * @param start      开始查找路由的时间
+     * @param phaseStart 找到路由的时间，没有分阶段计时时为 0
+     */
+    private void invokeHandler(DispatchContext context, Handler handler, HttpServletRequest req, HttpServletResponse resp,
+                               String[] pathVariables, DispatchTracer tracer, RouteMetrics metrics, long start, long phaseStart) throws Exception {
+        RouteMetrics phases = metrics != null && metrics.isPhasesEnabled() ? metrics : null;
 
-        //拿到req请求的参数，一个key对应多个value，所以是个数组
-        Map<String, String[]> reqParameterMap = req.getParameterMap();
-        //遍历req请求的参数, 给methodParamtersValues赋值
-        for (Map.Entry<String, String[]> entry : reqParameterMap.entrySet()) {
-            //参数是字符串的形式，因为是个数组所以要把[] 去掉
-            //‘\\[|\\]’: '[' 或者']' 都要被替换掉
-            String s = Arrays.toString(entry.getValue()).replaceAll("\\[|\\]", "");
-            if (!handler.paramIndexMapping.containsKey(entry.getKey())) {
-                continue;
-            }
-            //entry.getKey() = name
-            //参数下标
-            int index = handler.paramIndexMapping.get(entry.getKey());
-            //参数赋值
-            methodParamtersValues[index] = convert(methodParameterTypes[index], s);
+        //按初始化时生成的绑定计划逐个取形参的值
+        Object[] methodParamtersValues = handler.plan.resolveArguments(req, resp, pathVariables);
+        if (phases != null) {
+            long now = System.nanoTime();
+            phases.recordPhase(RouteMetrics.Phase.BIND, now - phaseStart);
+            phaseStart = now;
         }
-        if (handler.paramIndexMapping.containsKey(HttpServletRequest.class.getName())) {
-            int reqIndex = handler.paramIndexMapping.get(HttpServletRequest.class.getName());
-            methodParamtersValues[reqIndex] = req;
+        //命中响应缓存时没有写响应阶段，回放计入调用
+        if (tracer != null) {
+            tracer.invoking();
         }
-        if (handler.paramIndexMapping.containsKey(HttpServletResponse.class.getName())) {
-            int respIndex = handler.paramIndexMapping.get(HttpServletResponse.class.getName());
-            methodParamtersValues[respIndex] = resp;
+        //加了@MyResponseCache的方法，GET请求先查缓存，未命中时捕获响应
+        if (handler.responseCache != null && "GET".equals(req.getMethod())) {
+            Object[] keyValues = handler.plan.cacheKey(methodParamtersValues);
+            long cacheStart = phaseStart;
+            boolean[] missed = new boolean[1];
+            handler.responseCache.handle(keyValues, req, resp, capturing -> {
+                int respIndex = handler.plan.getResponseIndex();
+                if (respIndex >= 0) {
+                    methodParamtersValues[respIndex] = capturing;
+                }
+                Object invoke = handler.invoker.invoke(methodParamtersValues);
+                long invoked = phases != null ? System.nanoTime() : 0L;
+                if (tracer != null) {
+                    tracer.writing();
+                }
+                context.returnValueHandlers.handleReturnValue(invoke, req, capturing);
+                if (phases != null) {
+                    missed[0] = true;
+                    phases.recordPhase(RouteMetrics.Phase.INVOKE, invoked - cacheStart);
+                    phases.recordPhase(RouteMetrics.Phase.WRITE, System.nanoTime() - invoked);
+                }
+            });
+            if (metrics != null) {
+                long now = System.nanoTime();
+                //命中缓存时只有回放响应，算作 write
+                if (phases != null && !missed[0]) {
+                    phases.recordPhase(RouteMetrics.Phase.WRITE, now - cacheStart);
+                }
+                metrics.requestFinished(now - start);
+            }
+            return;
         }
-        //执行方法
-        Object invoke = handler.method.invoke(handler.controller, methodParamtersValues);
-        if (invoke == null || invoke instanceof Void) {
+        //返回CompletionStage/Callable的方法异步执行，不占用容器线程
+        if (handler.async) {
+            boolean deferred = asyncProcessor.process(req, resp, () -> handler.invoker.invoke(methodParamtersValues),
+                    new AsyncResultHandler(context.returnValueHandlers, handler, metrics, start, phaseStart));
+            if (metrics != null && !deferred) {
+                metrics.requestFinished(System.nanoTime() - start);
+            }
             return;
         }
-        resp.getWriter().write(invoke.toString());
+        //执行方法，走初始化时生成好的调用器
+        Object invoke = handler.invoker.invoke(methodParamtersValues);
+        if (phases != null) {
+            long now = System.nanoTime();
+            phases.recordPhase(RouteMetrics.Phase.INVOKE, now - phaseStart);
+            phaseStart = now;
+        }
+        if (tracer != null) {
+            tracer.writing();
+        }
+        //返回值交给处理链，按 Accept 写成 JSON 或文本
+        context.returnValueHandlers.handleReturnValue(invoke, req, resp);
+        if (metrics != null) {
+            long now = System.nanoTime();
+            if (phases != null) {
+                phases.recordPhase(RouteMetrics.Phase.WRITE, now - phaseStart);
+            }
+            metrics.requestFinished(now - start);
+        }
+    }
 
+    /**
+     * 输出 Prometheus 文本格式的指标
+     */
+    private void writeMetrics(DispatchContext context, HttpServletResponse resp) throws IOException {
+        resp.setContentType(MetricsRegistry.CONTENT_TYPE);
+        context.metrics.writePrometheus(resp.getWriter(), getCacheStats(context));
     }
 
     /**
     * @Description: 处理路径，正则
-    * @Param: [req]
+    * @Param: [context, path]
     * @return: com.tianhy.mvcframework.servletversion2.DispatcherServlet.Handler
     * @Author: thy
     * @throws:
     * @Date: 2019/3/31
     */
-    private Handler getHandler(HttpServletRequest req) {
-        if (handlerMapping == null) {
+    private Handler getHandler(DispatchContext context, String path, String[] pathVariables) {
+        if (context.router == null) {
             return null;
         }
-        String url = req.getRequestURI();
-        String contextUrl = req.getContextPath();
-        //  ‘/+’：多个 ‘/’
-        url = url.replaceAll(contextUrl, "").replaceAll("/+", "/");
+        return context.router.getHandler(path, pathVariables);
+    }
 
-        for (Handler handler : this.handlerMapping) {
-            Matcher matcher = handler.getPattern().matcher(url);
-            if (!matcher.matches()) {
+    /**
+     * 按顺序询问自定义映射，第一个命中的交给支持它的 HandlerAdapter
+     *
+     * @return 有映射命中并处理了请求
+     * @throws IllegalStateException 没有能处理该 handler 的 HandlerAdapter
+     */
+    private boolean dispatchToAdapter(DispatchContext context, String path, String[] pathVariables,
+                                      HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        for (HandlerMapping mapping : context.handlerMappings) {
+            Object handler = mapping.getHandler(path, pathVariables);
+            if (handler == null) {
                 continue;
             }
-            return handler;
+            for (HandlerAdapter adapter : context.handlerAdapters) {
+                if (adapter.supports(handler)) {
+                    adapter.handle(req, resp, handler, pathVariables);
+                    return true;
+                }
+            }
+            throw new IllegalStateException("No HandlerAdapter supports handler " + handler);
         }
-        return null;
+        return false;
+    }
+
+    /**
+     * 去掉contextPath并规范化之后的请求路径
+     */
+    private String getLookupPath(HttpServletRequest req) {
+        String url = req.getRequestURI();
+        String contextUrl = req.getContextPath();
+        //去掉contextPath，不再用 replaceAll 每次编译正则
+        if (contextUrl != null && !contextUrl.isEmpty() && url.startsWith(contextUrl)) {
+            url = url.substring(contextUrl.length());
+        }
+        //  ‘/+’：多个 ‘/’
+        if (url.contains("//")) {
+            url = url.replaceAll("/+", "/");
+        }
+        if (url.isEmpty()) {
+            url = "/";
+        }
+        return url;
     }
 
 
@@ -161,11 +614,31 @@ public class DispatcherServlet extends HttpServlet {
         if (ioc.isEmpty()) {
             return;
         }
-        for (Map.Entry<String, Object> entry : ioc.entrySet()) {
-            Class<?> clazz = entry.getValue().getClass();
+        //先注册容器中用户自定义的转换器，Handler 解析参数时才能用上
+        for (Converter<?> converter : beanFactory.getBeansOfType(Converter.class).values()) {
+            conversionService.addConverter(converter);
+        }
+        for (ReturnValueHandler handler : beanFactory.getBeansOfType(ReturnValueHandler.class).values()) {
+            returnValueHandlers.addHandler(handler);
+        }
+        argumentResolvers.addAll(beanFactory.getBeansOfType(ArgumentResolver.class).values());
+        handlerMappings.addAll(beanFactory.getBeansOfType(HandlerMapping.class).values());
+        handlerAdapters.addAll(beanFactory.getBeansOfType(HandlerAdapter.class).values());
+        //容器中的视图解析器优先，最后是从 classpath 加载模板的内置解析器
+        for (ViewResolver viewResolver : beanFactory.getBeansOfType(ViewResolver.class).values()) {
+            returnValueHandlers.addViewResolver(viewResolver);
+        }
+        returnValueHandlers.addViewResolver(TemplateViewResolver.create(contextConfig, getClass().getClassLoader()));
+        for (String beanName : beanFactory.getBeanNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            Class<?> clazz = definition.getBeanClass();
             if (!clazz.isAnnotationPresent(MyController.class)) {
                 continue;
             }
+            //单例controller直接绑定实例；延迟、prototype、request作用域的controller每次调用时从容器取
+            DefaultBeanFactory factory = beanFactory;
+            Object controller = definition.isEagerSingleton() ? factory.getBean(beanName) : null;
+            Supplier<Object> controllerSource = () -> factory.getBean(beanName);
 
             //@MyRequestMapping("/xxx")
             String baseUrl = "";
@@ -187,46 +660,331 @@ public class DispatcherServlet extends HttpServlet {
                 //通过获取到注解的值，与方法上@requestMapping的值拼接，生成一个路径
                 String url = ("/" + baseUrl + "/" + requestMapping.value()).
                         replaceAll("/+", "/");
-                Pattern compile = Pattern.compile(url);
-                this.handlerMapping.add(new Handler(compile, entry.getValue(), method));
+                Handler handler = controller != null ? new Handler(url, controller, method)
+                        : new Handler(url, controllerSource, method);
+                handler.applyInterceptors(interceptorChains.getInterceptors(method, clazz), controllerSource);
+                if (metricsRegistry != null) {
+                    handler.metrics = metricsRegistry.register(url, clazz.getSimpleName() + "." + method.getName());
+                }
+                this.handlerMapping.add(handler);
+                //同时注册到路由树
+                this.router.register(url, handler);
+                startupProfiler.addRoute(url, clazz.getName() + "." + method.getName());
                 System.out.println("mapped: " + url + " : " + method);
             }
         }
     }
 
     /**
-     * 自动依赖注入
+     * 给外部登记的单例注入依赖
+     * 容器创建的bean在 createBean 中完成注入，注入时用到的单例还没有创建的话按需创建
      */
-    private void doAutowired() {
-        if (ioc.isEmpty()) {
-            return;
+    private void doAutowired(Collection<String> beanNames) {
+        for (String beanName : beanNames) {
+            injectBean(beanFactory.getBeanDefinition(beanName), beanFactory.getBean(beanName), beanFactory, startupProfiler);
         }
-        //遍历IOC容器
-        for (Map.Entry<String, Object> entry : ioc.entrySet()) {
-            //拿到所有的字段
-            Field[] fields = entry.getValue().getClass().getDeclaredFields();
-            for (Field f : fields) {
-//               Annotation [] annotations = f.getAnnotations();
-                if (!f.isAnnotationPresent(MyAutowired.class)) {
-                    continue;
+    }
+
+    /**
+     * 给bean的@MyAutowired字段赋值
+     */
+    private void populateBean(Object bean, DefaultBeanFactory factory) {
+        //拿到所有的字段
+        Field[] fields = bean.getClass().getDeclaredFields();
+        for (Field f : fields) {
+            if (!f.isAnnotationPresent(MyAutowired.class)) {
+                continue;
+            }
+            String beanName = resolveFieldBeanName(factory, f);
+            f.setAccessible(true);
+            try {
+                //给字段赋值
+                f.set(bean, resolveDependency(factory, beanName, f.getType(), "field " + f));
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @MyAutowired 字段要注入的beanName
+     */
+    private String resolveFieldBeanName(DefaultBeanFactory factory, Field field) {
+        String beanName = field.getAnnotation(MyAutowired.class).value().trim();
+        //如果没有自定义beanName，根据类型注入
+        if (StringUtils.isBlank(beanName)) {
+            return resolveBeanName(factory, field.getType(), field.getDeclaringClass().getName() + "." + field.getName());
+        }
+        if (!factory.containsBean(beanName)) {
+            throw new BeansException("No bean named '" + beanName + "' found, required by field "
+                    + field.getDeclaringClass().getName() + "." + field.getName());
+        }
+        return factory.getBeanDefinition(beanName).getBeanName();
+    }
+
+    /**
+     * 注入的是不是bean本身(创建时就要从容器取出)，而不是调用时才去容器取的代理，规则与 resolveDependency 一致
+     */
+    private static boolean isResolvedEagerly(BeanDefinition dependency, Class<?> requiredType) {
+        return dependency.isEagerSingleton() || !requiredType.isInterface();
+    }
+
+    /**
+     * 解析要注入的对象
+     * 延迟单例、prototype、request作用域的bean，如果字段类型是接口，注入代理，调用时才去容器里取；
+     * 字段类型不是接口时无法代理，只能立即获取，request作用域的bean此时没有请求可绑定，直接报错
+     *
+     * @param injectionPoint 注入的字段或构造器参数，用于报错
+     */
+    private Object resolveDependency(BeanFactory factory, String beanName, Class<?> fieldType, String injectionPoint) {
+        BeanDefinition definition = factory.getBeanDefinition(beanName);
+        if (definition.isEagerSingleton()) {
+            return checkInjectable(factory.getBean(beanName), beanName, fieldType, injectionPoint);
+        }
+        if (fieldType.isInterface()) {
+            return ScopedProxyFactory.createProxy(factory, beanName, fieldType);
+        }
+        if (BeanDefinition.SCOPE_REQUEST.equals(definition.getScope())) {
+            throw new BeansException("Request scoped bean " + beanName + " can only be injected into an interface typed field, but found "
+                    + fieldType.getName());
+        }
+        return checkInjectable(factory.getBean(beanName), beanName, fieldType, injectionPoint);
+    }
+
+    /**
+     * 有切面或 @MyCacheable 的bean是只实现接口的代理，按实现类注入时类型对不上
+     */
+    private static Object checkInjectable(Object bean, String beanName, Class<?> fieldType, String injectionPoint) {
+        if (!fieldType.isInstance(bean)) {
+            throw new BeansException("Bean " + beanName + " of type " + bean.getClass().getName() + " can not be injected into "
+                    + injectionPoint + ", it is proxied, inject one of its interfaces instead");
+        }
+        return bean;
+    }
+
+    /**
+     * 按类型找beanName：先按全类名(接口别名)找，找不到再按类型找唯一的bean
+     *
+     * @param requiredBy 需要这个依赖的地方，只用于报错
+     */
+    private String resolveBeanName(DefaultBeanFactory factory, Class<?> type, String requiredBy) {
+        if (factory.containsBean(type.getName())) {
+            return factory.getBeanDefinition(type.getName()).getBeanName();
+        }
+        String beanName = factory.getBeanNameForType(type);
+        if (beanName == null) {
+            throw new BeansException("No bean of type " + type.getName() + " found, required by " + requiredBy);
+        }
+        return beanName;
+    }
+
+    /**
+     * 创建bean：实例化、注入依赖，需要时包装成代理
+     * 立即创建的单例和延迟创建的bean都经过 BeanHolder 走这一条路径，同一个单例只会创建一次
+     */
+    private Object createBean(BeanDefinition definition, BeanFactory owner, CacheManager caches, InterceptorChainFactory chains,
+                              StartupProfiler profiler) {
+        DefaultBeanFactory factory = (DefaultBeanFactory) owner;
+        Object instance = constructBean(definition, factory, profiler);
+        injectBean(definition, instance, factory, profiler);
+        return wrapIfNecessary(definition, instance, caches, chains);
+    }
+
+    /**
+     * 构造bean，记录启动耗时和 JFR 事件
+     */
+    private Object constructBean(BeanDefinition definition, DefaultBeanFactory factory, StartupProfiler profiler) {
+        String beanName = definition.getBeanName();
+        Class<?> beanClass = definition.getBeanClass();
+        return profiler.timeConstruction(beanName, beanClass,
+                () -> BeanLifecycleEvents.creation(beanName, beanClass, () -> instantiate(definition, factory)));
+    }
+
+    /**
+     * 依赖注入，记录启动耗时和 JFR 事件
+     */
+    private void injectBean(BeanDefinition definition, Object bean, DefaultBeanFactory factory, StartupProfiler profiler) {
+        String beanName = definition.getBeanName();
+        Class<?> beanClass = definition.getBeanClass();
+        profiler.timeInjection(beanName, beanClass,
+                () -> BeanLifecycleEvents.injection(beanName, beanClass, () -> populateBean(bean, factory)));
+    }
+
+    /**
+     * 收集 @MyAspect 切面，切面bean此时还没有创建
+     */
+    private void initAdvisors() {
+        DefaultBeanFactory factory = beanFactory;
+        for (String beanName : factory.getBeanNames()) {
+            Class<?> clazz = factory.getBeanDefinition(beanName).getBeanClass();
+            if (clazz.isAnnotationPresent(MyAspect.class)) {
+                interceptorChains.addAdvisor(new Advisor(beanName, clazz, () -> factory.getBean(beanName)));
+            }
+        }
+    }
+
+    /**
+     * @MyService 的bean如果有方法匹配到切面，或者有 @MyCacheable/@MyCacheEvict 方法，返回代理；否则原样返回
+     * 缓存拦截器放在切面之后(最内层)
+     */
+    private Object wrapIfNecessary(BeanDefinition definition, Object instance, CacheManager caches, InterceptorChainFactory chains) {
+        Class<?> beanClass = definition.getBeanClass();
+        if (!beanClass.isAnnotationPresent(MyService.class) || chains.isAdvisorBean(definition.getBeanName())) {
+            return instance;
+        }
+        return AopProxyFactory.wrapIfNecessary(definition.getBeanName(), instance, method -> {
+            MethodInterceptor[] interceptors = chains.getInterceptors(method, beanClass);
+            CacheInterceptor cacheInterceptor = CacheInterceptor.forMethod(method, caches);
+            if (cacheInterceptor == null) {
+                return interceptors;
+            }
+            MethodInterceptor[] chain = Arrays.copyOf(interceptors, interceptors.length + 1);
+            chain[interceptors.length] = cacheInterceptor;
+            return chain;
+        });
+    }
+
+    /**
+     * 通过构造器实例化，构造器参数按类型从容器中解析
+     */
+    private Object instantiate(BeanDefinition definition, DefaultBeanFactory factory) {
+        Constructor<?> constructor = determineConstructor(definition.getBeanClass());
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            String beanName = resolveBeanName(factory, parameterTypes[i], "constructor of " + definition.getBeanName());
+            args[i] = resolveDependency(factory, beanName, parameterTypes[i],
+                    "parameter #" + i + " of constructor " + constructor);
+        }
+        try {
+            constructor.setAccessible(true);
+            return constructor.newInstance(args);
+        } catch (InvocationTargetException e) {
+            throw new BeansException("Failed to instantiate " + definition, e.getTargetException());
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new BeansException("Failed to instantiate " + definition, e);
+        }
+    }
+
+    /**
+     * 选择构造器：加了@MyAutowired的构造器优先；只有一个构造器时用它；否则用无参构造器
+     */
+    private Constructor<?> determineConstructor(Class<?> clazz) {
+        Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+        Constructor<?> autowired = null;
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(MyAutowired.class)) {
+                if (autowired != null) {
+                    throw new BeansException("Only one constructor of " + clazz.getName() + " can be marked with @MyAutowired");
                 }
-                MyAutowired autowired = f.getAnnotation(MyAutowired.class);
-                String beanName = autowired.value().trim();
-                //如果没有自定义beanName，根据类型注入
-                if (StringUtils.isBlank(beanName)) {
-                    beanName = f.getType().getName();
+                autowired = constructor;
+            }
+        }
+        if (autowired != null) {
+            return autowired;
+        }
+        if (constructors.length == 1) {
+            return constructors[0];
+        }
+        try {
+            return clazz.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new BeansException(clazz.getName() + " has multiple constructors, mark one of them with @MyAutowired");
+        }
+    }
+
+    /**
+     * 创建所有非延迟的单例
+     * 根据构造器和 @MyAutowired 字段的依赖建立依赖图，检查循环依赖；互不依赖的bean在ForkJoinPool中并行创建，
+     * 一个bean在它依赖的bean都完整创建(实例化、注入、代理)后才开始创建，所以构造器里可以直接调用注入的bean
+     */
+    private void instantiateSingletons() {
+        DefaultBeanFactory factory = beanFactory;
+        Map<String, Object> created = factory.getSingletonInstances();
+        DependencyGraph graph = new DependencyGraph();
+        for (String beanName : factory.getBeanNames()) {
+            BeanDefinition definition = factory.getBeanDefinition(beanName);
+            if (!definition.isEagerSingleton() || created.containsKey(beanName)) {
+                continue;
+            }
+            List<String> dependencies = new ArrayList<>();
+            collectEagerDependencies(definition, factory, new HashSet<>(Collections.singleton(beanName)), dependencies);
+            //生成代理时要用到切面bean，切面先创建
+            if (definition.getBeanClass().isAnnotationPresent(MyService.class) && !interceptorChains.isAdvisorBean(beanName)) {
+                for (String advisorBeanName : interceptorChains.getAdvisorBeanNames()) {
+                    if (factory.getBeanDefinition(advisorBeanName).isEagerSingleton()) {
+                        dependencies.add(advisorBeanName);
+                    }
                 }
-                f.setAccessible(true);
-                try {
-                    //给字段赋值
-                    f.set(entry.getValue(), ioc.get(beanName));
-//                    System.out.println(f.get(entry.getValue()));
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
+            }
+            graph.addNode(beanName, dependencies);
+        }
+        List<String> order = graph.topologicalOrder();
+        if (order.isEmpty()) {
+            return;
+        }
+
+        int parallelism = Integer.parseInt(contextConfig.getProperty("container.parallelism",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            Map<String, CompletableFuture<Object>> futures = new HashMap<>();
+            for (String beanName : order) {
+                List<CompletableFuture<Object>> dependencies = new ArrayList<>();
+                for (String dependency : graph.getDependencies(beanName)) {
+                    //依赖图外的bean(延迟单例等)不需要等待
+                    if (futures.containsKey(dependency)) {
+                        dependencies.add(futures.get(dependency));
+                    }
                 }
+                //和延迟获取走同一条创建路径；已经被别的bean按需创建过的直接返回
+                CompletableFuture<Object> future = CompletableFuture
+                        .allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                        .thenApplyAsync(v -> factory.getBean(beanName), pool);
+                futures.put(beanName, future);
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BeansException) {
+                throw (BeansException) e.getCause();
+            }
+            throw new BeansException("Failed to instantiate singletons", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 收集创建bean之前必须就绪的单例：构造器参数和 @MyAutowired 字段中直接注入的bean
+     * 注入代理的依赖调用时才取，不算；延迟创建的依赖会在当前线程上一起创建，继续收集它的依赖
+     *
+     * @param visited 已经看过的beanName，避免重复和死循环
+     */
+    private void collectEagerDependencies(BeanDefinition definition, DefaultBeanFactory factory, Set<String> visited,
+                                          List<String> dependencies) {
+        Class<?> beanClass = definition.getBeanClass();
+        Map<String, Class<?>> required = new LinkedHashMap<>();
+        for (Class<?> parameterType : determineConstructor(beanClass).getParameterTypes()) {
+            required.putIfAbsent(resolveBeanName(factory, parameterType, "constructor of " + definition.getBeanName()), parameterType);
+        }
+        for (Field field : beanClass.getDeclaredFields()) {
+            if (field.isAnnotationPresent(MyAutowired.class)) {
+                required.putIfAbsent(resolveFieldBeanName(factory, field), field.getType());
+            }
+        }
+        for (Map.Entry<String, Class<?>> entry : required.entrySet()) {
+            BeanDefinition dependency = factory.getBeanDefinition(entry.getKey());
+            if (!isResolvedEagerly(dependency, entry.getValue()) || !visited.add(dependency.getBeanName())) {
+                continue;
+            }
+            if (dependency.isEagerSingleton()) {
+                dependencies.add(dependency.getBeanName());
+            } else {
+                collectEagerDependencies(dependency, factory, visited, dependencies);
             }
         }
     }
+
     /**
      * 初始化扫描到的类,为DI作准备
      */
@@ -237,52 +995,87 @@ public class DispatcherServlet extends HttpServlet {
         try {
             //遍历类名
             for (String className : classNames) {
-                //根据类名返回class对象
-                Class<?> clazz = Class.forName(className);
-
-                //1.什么样的类要被初始化？
-                //2.加了注解的类怎么判断？
-
-                //如果是加了@Mycontroller注解的类
-                if (clazz.isAnnotationPresent(MyController.class)) {
-                    //实例化
-                    Object instance = clazz.newInstance();
-                    //Spring默认类名首字母小写
-                    String beanName = toLowerFirstCase(clazz.getSimpleName());
-                    //一个类名对应一个实例,保存到IOC
-                    ioc.put(beanName, instance);
-
-                    //如果是加了@MyService注解的类
-                } else if (clazz.isAnnotationPresent(MyService.class)) {
-
-                    //自定义注解的情况，比如@MyService("xxx")
-                    MyService myService = clazz.getAnnotation(MyService.class);
-                    String beanName = myService.value();
-                    if (StringUtils.isBlank(beanName.trim())) {
-                        beanName = toLowerFirstCase(clazz.getSimpleName());
-                    }
-                    Object instance = clazz.newInstance();
-                    //保存到IOC
-                    ioc.put(beanName, instance);
-                    //如果实现了多个接口，根据类名自动赋值
-                    for (Class<?> i : clazz.getInterfaces()) {
-                        if (ioc.containsKey(i.getName())) {
-                            throw new Exception("The" + i.getName() + "is exist!");
-                        }
-                        //把类名当作Key
-                        ioc.put(i.getName(), instance);
-                    }
-                } else {
+                //根据类名返回class对象，扫描阶段已经按注解过滤，这里只加载组件类
+                Class<?> clazz = Class.forName(className, true, this.getClass().getClassLoader());
+                loadedClassCount++;
+
+                //有索引时直接用编译期记录的beanName、作用域和接口，不再反射读取注解
+                ComponentIndex.Component component = indexedComponents != null
+                        ? indexedComponents.get(className) : describeComponent(clazz);
+                if (component == null) {
                     continue;
                 }
+                String beanName = component.getBeanName();
+                //一个类名对应一个实例,保存到IOC
+                registerBean(new BeanDefinition(beanName, clazz, component.getScope(), component.isLazy()));
+                //如果实现了多个接口，根据接口名自动赋值
+                for (String interfaceName : component.getInterfaces()) {
+                    if (ioc.containsBean(interfaceName)) {
+                        throw new BeansException("The " + interfaceName + " is exist!");
+                    }
+                    //把接口名当作别名
+                    ioc.registerAlias(interfaceName, beanName);
+                }
             }
-
-            System.out.println(" ioc : "+ ioc);
-        } catch (Exception e) {
+        } catch (ClassNotFoundException e) {
+            //只吞掉加载不了的类；bean定义错误(作用域、缓存、重复的名字/接口)直接抛出，不发布缺了bean的容器
             e.printStackTrace();
         }
     }
 
+    /**
+     * 从注解读取组件信息，规则与 ComponentIndexProcessor 写索引时一致
+     *
+     * @return 不是组件时返回 null
+     */
+    private ComponentIndex.Component describeComponent(Class<?> clazz) {
+        //如果是加了@Mycontroller注解的类，Spring默认类名首字母小写
+        if (clazz.isAnnotationPresent(MyController.class)) {
+            MyController myController = clazz.getAnnotation(MyController.class);
+            return new ComponentIndex.Component(clazz.getName(), ComponentIndex.STEREOTYPE_CONTROLLER,
+                    toLowerFirstCase(clazz.getSimpleName()), myController.scope(), myController.lazy(), Collections.<String>emptyList());
+        }
+        //如果是加了@MyService注解的类
+        if (clazz.isAnnotationPresent(MyService.class)) {
+            //自定义注解的情况，比如@MyService("xxx")
+            MyService myService = clazz.getAnnotation(MyService.class);
+            String beanName = myService.value();
+            if (StringUtils.isBlank(beanName.trim())) {
+                beanName = toLowerFirstCase(clazz.getSimpleName());
+            }
+            List<String> interfaces = new ArrayList<>();
+            for (Class<?> i : clazz.getInterfaces()) {
+                //框架的扩展接口(如Converter)允许有多个实现，不按接口名注册
+                if (!i.getName().startsWith(FRAMEWORK_PACKAGE)) {
+                    interfaces.add(i.getName());
+                }
+            }
+            return new ComponentIndex.Component(clazz.getName(), ComponentIndex.STEREOTYPE_SERVICE, beanName,
+                    myService.scope(), myService.lazy(), interfaces);
+        }
+        return null;
+    }
+
+    /**
+     * doInstance 已经登记了所有 @MyCacheable 缓存，这里检查 @MyCacheEvict 引用的缓存名
+     */
+    private void checkCacheEvictions() {
+        for (BeanDefinition definition : serviceDefinitions) {
+            CacheInterceptor.checkEvictCaches(definition.getBeanClass(), cacheManager);
+        }
+    }
+
+    /**
+     * 只登记定义；非延迟的单例在容器冻结后按依赖顺序并行创建，其他作用域第一次获取时再创建
+     */
+    private void registerBean(BeanDefinition definition) {
+        ioc.registerBeanDefinition(definition);
+        if (definition.getBeanClass().isAnnotationPresent(MyService.class)) {
+            CacheInterceptor.declareCaches(definition.getBeanClass(), cacheManager);
+            serviceDefinitions.add(definition);
+        }
+    }
+
     private String toLowerFirstCase(String simpleName) {
         char[] chars = simpleName.toCharArray();
         // 之所以加，是因为大小写字母的ASCII码相差32，
@@ -294,30 +1087,43 @@ public class DispatcherServlet extends HttpServlet {
 
     /**
      * 扫描类
+     * 有组件索引时直接读索引；否则扫描，目录和jar包都支持，直接读class文件判断注解，不加载类
      *
      * @param scanPackage
      */
     private void doScannerClass(String scanPackage) {
-        //由包路径com.tianhy.controller 转换为文件路径,就是把 . 替换成 /
-        // \\: 转义的意义在于，java中的路径为字符串，无法识别是否为路径
-        URL url = this.getClass().getClassLoader().getResource("/" + scanPackage.replaceAll("\\.", "/"));
-        File classPath = new File(url.getFile());
-        //F:\StudyWorkSpaces\Spring-v1\target\classes
-        // 遍历当前路径下的所有文件
-        for (File file : classPath.listFiles()) {
-            //如果是根目录，递归
-            if (file.isDirectory()) {
-                doScannerClass(scanPackage + "." + file.getName());
-            } else {
-                if (!file.getName().endsWith(".class")) {
-                    continue;
+        //优先使用编译期生成的组件索引，扫描包所在的类路径根目录没有全部生成索引时才扫描类路径
+        if (!"false".equalsIgnoreCase(contextConfig.getProperty("componentIndex.enabled"))) {
+            try {
+                ComponentIndex index = ComponentIndex.load(this.getClass().getClassLoader(), scanPackage);
+                if (index.isComplete()) {
+                    indexedComponents = index.getComponents();
+                    classNames.addAll(indexedComponents.keySet());
+                    return;
                 }
-                String className = scanPackage + "." + file.getName().replace(".class", "");
-                //将扫描到的类名保存
-                classNames.add(className);
+                if (index.isPartial()) {
+                    startupProfiler.addWarning("Component index missing in " + index.getUnindexedRoots()
+                            + ", scanning the classpath for " + scanPackage);
+                }
+            } catch (IOException e) {
+                startupProfiler.addWarning("Failed to read component index, scanning the classpath for " + scanPackage + ": " + e);
             }
         }
 
+        ClassPathScanner scanner = new ClassPathScanner(this.getClass().getClassLoader(),
+                Arrays.asList(MyController.class.getName(), MyService.class.getName()));
+        try {
+            for (ClassMetadata metadata : scanner.scan(scanPackage)) {
+                //将扫描到的类名保存
+                classNames.add(metadata.getClassName());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        scannedClassCount = scanner.getScannedCount();
+        for (URL location : scanner.getSkippedLocations()) {
+            startupProfiler.addWarning("Skipped unsupported classpath location " + location);
+        }
     }
 
     /**
@@ -345,19 +1151,129 @@ public class DispatcherServlet extends HttpServlet {
         }
     }
 
-    //从url获取到的参数都是string类型,http基于字符串
-    //类型转换
+    /**
+     * 各个 @MyResponseCache 方法和 @MyCacheable 缓存的计数
+     */
+    public List<CacheStats> getCacheStats() {
+        return getCacheStats(this.context);
+    }
+
+    /**
+     * 当前生效的路由指标，metrics.enabled=false 时为 null
+     */
+    public MetricsRegistry getMetrics() {
+        return context.metrics;
+    }
+
+    private static List<CacheStats> getCacheStats(DispatchContext context) {
+        List<CacheStats> stats = new ArrayList<>(context.cacheManager.getStats());
+        for (Handler handler : context.handlers) {
+            if (handler.responseCache != null) {
+                stats.add(handler.responseCache.getStats());
+            }
+        }
+        return stats;
+    }
+
     public Object convert(Class<?> type, String value) {
-        if(String.class == type){
-            return value;
+        return conversionService.getConverter(type).convert(value);
+    }
+
+    /**
+     * 一次refresh的结果：冻结的容器和路由表，构建完成后不再修改
+     */
+    private static final class DispatchContext {
+        private static final DispatchContext EMPTY = new DispatchContext(null, null, Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), new ReturnValueHandlers(), new CacheManager(), null);
+
+        private final BeanFactory beanFactory;
+        private final RouteHandlerMapping<Handler> router;
+        private final List<HandlerMapping> handlerMappings;
+        private final List<HandlerAdapter> handlerAdapters;
+        /**
+         * 所有映射中路径变量个数的最大值
+         */
+        private final int maxVariables;
+        private final List<Handler> handlers;
+        private final ReturnValueHandlers returnValueHandlers;
+        private final CacheManager cacheManager;
+        private final MetricsRegistry metrics;
+
+        private DispatchContext(BeanFactory beanFactory, RouteHandlerMapping<Handler> router, List<HandlerMapping> handlerMappings,
+                                List<HandlerAdapter> handlerAdapters, List<Handler> handlers,
+                                ReturnValueHandlers returnValueHandlers, CacheManager cacheManager, MetricsRegistry metrics) {
+            this.beanFactory = beanFactory;
+            this.router = router;
+            this.handlerMappings = Collections.unmodifiableList(handlerMappings);
+            this.handlerAdapters = Collections.unmodifiableList(handlerAdapters);
+            int max = router != null ? router.getMaxVariables() : 0;
+            for (HandlerMapping mapping : handlerMappings) {
+                max = Math.max(max, mapping.getMaxVariables());
+            }
+            this.maxVariables = max;
+            this.handlers = Collections.unmodifiableList(handlers);
+            this.returnValueHandlers = returnValueHandlers;
+            this.cacheManager = cacheManager;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * 异步结果写回响应，使用发起请求时的那份返回值处理链；
+     * 记录指标时，invoke 阶段从提交执行算到拿到结果，转成异步的请求在结束回调里计入总耗时
+     */
+    private static final class AsyncResultHandler implements AsyncRequestProcessor.ResultHandler {
+        private final ReturnValueHandlers returnValueHandlers;
+        private final Handler handler;
+        private final RouteMetrics metrics;
+        private final long startNanos;
+        private final long invokeNanos;
+
+        private AsyncResultHandler(ReturnValueHandlers returnValueHandlers, Handler handler, RouteMetrics metrics,
+                                   long startNanos, long invokeNanos) {
+            this.returnValueHandlers = returnValueHandlers;
+            this.handler = handler;
+            this.metrics = metrics;
+            this.startNanos = startNanos;
+            this.invokeNanos = invokeNanos;
+        }
+
+        @Override
+        public void handleResult(Object result, HttpServletRequest req, HttpServletResponse resp) throws Exception {
+            DispatchTracer tracer = DispatchTracer.startWrite(handler.route, handler.method);
+            try {
+                if (metrics == null || !metrics.isPhasesEnabled()) {
+                    returnValueHandlers.handleReturnValue(result, req, resp);
+                    return;
+                }
+                long invoked = System.nanoTime();
+                metrics.recordPhase(RouteMetrics.Phase.INVOKE, invoked - invokeNanos);
+                returnValueHandlers.handleReturnValue(result, req, resp);
+                metrics.recordPhase(RouteMetrics.Phase.WRITE, System.nanoTime() - invoked);
+            } finally {
+                if (tracer != null) {
+                    tracer.end();
+                }
+            }
         }
-        if (Integer.class == type) {
-            return Integer.valueOf(value);
-        } else if (Double.class == type) {
-            return Double.valueOf(value);
+
+        @Override
+        public void onComplete(Throwable failure) {
+            if (metrics == null) {
+                return;
+            }
+            if (failure != null) {
+                metrics.recordError(failure);
+            }
+            metrics.requestFinished(System.nanoTime() - startNanos);
         }
 
-        return value;
+        @Override
+        public void handleError(Throwable error, HttpServletRequest req, HttpServletResponse resp) throws Exception {
+            error.printStackTrace();
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            resp.getWriter().write("500, ErrInfo :" + Arrays.toString(error.getStackTrace()));
+        }
     }
 
     /**
@@ -367,63 +1283,86 @@ public class DispatcherServlet extends HttpServlet {
     public class Handler {
         private Method method;
         private Object controller;
-        private Pattern pattern;
+        /**
+         * 路由模板，如 /users/{id}
+         */
+        private String route;
         //参数列表
         private Class<?>[] paramTypes;
+        /**
+         * 初始化时生成的调用器，默认基于MethodHandle，可配置退回反射
+         */
+        private HandlerInvoker invoker;
 
         /**
-         * 将参数与参数的位置保存
+         * 返回CompletionStage/Callable，需要异步处理
          */
-        private Map<String, Integer> paramIndexMapping;
+        private boolean async;
 
-        public Handler(Pattern pattern, Object controller, Method method) {
-            this.pattern = pattern;
-            this.method = method;
-            this.controller = controller;
-            this.paramTypes = method.getParameterTypes();
-            this.paramIndexMapping = new HashMap<>();
-            putParamIndexMapping(method);
+        /**
+         * 参数绑定计划，每个形参一个取值器，初始化时算好
+         */
+        private DispatchPlan plan;
+
+        /**
+         * 匹配到的切面，初始化时算好；为空时调用器不做包装
+         */
+        private MethodInterceptor[] interceptors = InterceptorChainFactory.EMPTY;
+
+        /**
+         * @MyResponseCache 方法的响应缓存，其他方法为 null
+         */
+        private ResponseCache responseCache;
+
+        /**
+         * 路由指标，metrics.enabled=false 时为 null
+         */
+        private RouteMetrics metrics;
+
+        public Handler(String route, Object controller, Method method) {
+            this(route, controller, HandlerInvokers.create(contextConfig.getProperty(HandlerInvokers.MODE_PROPERTY), controller, method), method);
         }
 
         /**
-         * 将方法中的参数与其位置关联
+         * 非单例的controller，每次调用时从controllerSource获取实例
          */
-        private void putParamIndexMapping(Method method) {
-
-            /**
-             * 方法上加了注解的参数
-             */
-            //拿到方法上的注解
-            Annotation[][] anno = method.getParameterAnnotations();
-            for (int i = 0; i < anno.length; i++) {
-                //解析注解@MyRequestParam
-                for (Annotation a : anno[i]) {
-                    if (a instanceof MyRequestParam) {
-                        //获取注解的value
-                        String value = ((MyRequestParam) a).value();
-                        if (StringUtils.isNotBlank(value.trim())) {
-                            //参数与位置保存
-                            paramIndexMapping.put(value, i);
-                        }
-                    }
+        public Handler(String route, Supplier<Object> controllerSource, Method method) {
+            this(route, null, HandlerInvokers.create(contextConfig.getProperty(HandlerInvokers.MODE_PROPERTY), controllerSource, method), method);
+        }
+
+        private Handler(String route, Object controller, HandlerInvoker invoker, Method method) {
+            this.route = route;
+            this.method = method;
+            this.controller = controller;
+            this.paramTypes = method.getParameterTypes();
+            this.invoker = invoker;
+            this.async = AsyncRequestProcessor.isAsyncReturnType(method.getReturnType());
+            this.plan = DispatchPlan.build(method, route, conversionService, argumentResolvers, Long.parseLong(
+                    contextConfig.getProperty(RequestBodyBinder.MAX_SIZE_PROPERTY, String.valueOf(RequestBodyBinder.DEFAULT_MAX_SIZE))));
+            MyResponseCache cacheConfig = method.getAnnotation(MyResponseCache.class);
+            if (cacheConfig != null) {
+                if (async || StreamingReturnValueHandler.isStreamingType(method.getReturnType())) {
+                    throw new IllegalStateException("@MyResponseCache is not supported on async or streaming handler method: " + method);
                 }
+                //缓存键只有绑定的参数，能读到其他请求数据的形参会让不同用户拿到同一份响应
+                String unkeyed = plan.findUnkeyedParameter(method);
+                if (unkeyed != null) {
+                    throw new IllegalStateException("@MyResponseCache handler method can not take " + unkeyed
+                            + ", it is not part of the cache key: " + method);
+                }
+                this.responseCache = new ResponseCache(method.getDeclaringClass().getSimpleName() + "." + method.getName(), cacheConfig);
             }
+        }
 
-
-            /**
-             * req与resp参数
-             */
-            //拿到方法的形参列表
-            Class<?>[] methodParameterTypes = method.getParameterTypes();
-            //遍历方法的形参列表
-            for (int i = 0; i < methodParameterTypes.length; i++) {
-                //每一个方法的形参
-                Class<?> methodParamType = methodParameterTypes[i];
-                //判断是否为req/resp类型，拿到参数名称，分别放入paramIndexMapping
-                if ((methodParamType == HttpServletRequest.class) || methodParamType == HttpServletResponse.class) {
-                    paramIndexMapping.put(methodParamType.getName(), i);
-                }
+        /**
+         * 有匹配的切面时，把调用器包装成先走拦截器链
+         */
+        private void applyInterceptors(MethodInterceptor[] interceptors, Supplier<Object> controllerSource) {
+            if (interceptors.length == 0) {
+                return;
             }
+            this.interceptors = interceptors;
+            this.invoker = new InterceptingHandlerInvoker(invoker, method, interceptors, controllerSource);
         }
     }
 }
@@ -0,0 +1,23 @@
+package com.tianhy.mvcframework.startup;
+
+import jdk.jfr.*;
+
+/**
+ * @Desc: 启动阶段的 JFR 事件，持续时间就是阶段耗时
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+@Name("com.tianhy.mvcframework.StartupPhase")
+@Label("Startup Phase")
+@Category({"MVC Framework", "Startup"})
+@Description("One phase of DispatcherServlet init/refresh")
+@StackTrace(false)
+public class StartupPhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
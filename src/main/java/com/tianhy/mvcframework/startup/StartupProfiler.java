@@ -0,0 +1,428 @@
+package com.tianhy.mvcframework.startup;
+
+import jdk.jfr.FlightRecorder;
+import org.nutz.json.Json;
+import org.nutz.json.JsonFormat;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * @Desc: 记录一次 init/refresh 的启动过程：各阶段耗时和分配的内存、每个bean的构造和注入耗时、扫描/加载的类数量、最终的路由表，
+ * 以及启动过程中的降级和跳过(警告)
+ * <p>
+ * 阶段在 refresh 线程上串行执行；bean 可能在并行创建单例的线程池中构造，
+ * 这些线程上的分配量按 bean 统计后再计入当前阶段。分配量依赖 HotSpot 的线程分配计数，不支持时为 -1。
+ * JFR 已经启动时每个阶段同时提交一个 {@link StartupPhaseEvent}(没有启动时连事件类都不加载，加载事件类会初始化 JFR，要几百毫秒)，
+ * 报告可以写成 JSON 文件给 CI 比对。
+ * refresh 结束后调用 finish，之后延迟创建的bean不再记录。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class StartupProfiler {
+
+    /**
+     * 配置项：启动报告(JSON)的输出文件，不配置则不写文件
+     */
+    public static final String REPORT_FILE_PROPERTY = "startup.report.file";
+
+    /**
+     * 配置项：报告中列出最慢的前几个bean，默认 10
+     */
+    public static final String SLOWEST_BEANS_PROPERTY = "startup.slowestBeans";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+    private int slowestBeans = 10;
+
+    private final Thread owner = Thread.currentThread();
+
+    private final long startNanos = System.nanoTime();
+
+    private final List<PhaseTiming> phases = new ArrayList<>();
+
+    private final Map<String, BeanTiming> beans = new ConcurrentHashMap<>();
+
+    private final List<Map<String, Object>> routes = new ArrayList<>();
+
+    /**
+     * 启动过程中的降级和跳过，比如不支持的类路径、退回类路径扫描；bean 可能在线程池中创建，所以用并发容器
+     */
+    private final List<String> warnings = new CopyOnWriteArrayList<>();
+
+    /**
+     * 当前阶段里其他线程(创建单例的线程池)上的分配量
+     */
+    private final LongAdder offThreadAllocated = new LongAdder();
+
+    /**
+     * 当前线程上正在计时的bean层数，嵌套创建的依赖已经包含在外层里，不重复计入阶段分配量
+     */
+    private final ThreadLocal<int[]> nesting = ThreadLocal.withInitial(() -> new int[1]);
+
+    private String currentPhase;
+
+    private long phaseStartNanos;
+
+    private long phaseStartAllocated;
+
+    private StartupPhaseEvent phaseEvent;
+
+    private long totalNanos = -1;
+
+    private int classesScanned;
+
+    private int classesLoaded;
+
+    private volatile boolean finished;
+
+    /**
+     * 读取报告相关的配置；init 时配置文件本身的加载也要计时，所以不放在构造器里
+     */
+    public void configure(Properties config) {
+        this.slowestBeans = Integer.parseInt(config.getProperty(SLOWEST_BEANS_PROPERTY, "10"));
+    }
+
+    public void beginPhase(String name) {
+        if (currentPhase != null) {
+            endPhase();
+        }
+        currentPhase = name;
+        offThreadAllocated.reset();
+        if (FlightRecorder.isInitialized()) {
+            phaseEvent = new StartupPhaseEvent();
+            phaseEvent.begin();
+        }
+        phaseStartAllocated = currentThreadAllocatedBytes();
+        phaseStartNanos = System.nanoTime();
+    }
+
+    public void endPhase() {
+        if (currentPhase == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - phaseStartNanos;
+        long allocated = -1;
+        if (ALLOCATION_SUPPORTED) {
+            allocated = currentThreadAllocatedBytes() - phaseStartAllocated + offThreadAllocated.sum();
+        }
+        phases.add(new PhaseTiming(currentPhase, nanos, allocated));
+
+        if (phaseEvent != null) {
+            phaseEvent.end();
+            if (phaseEvent.shouldCommit()) {
+                phaseEvent.phase = currentPhase;
+                phaseEvent.allocatedBytes = allocated;
+                phaseEvent.commit();
+            }
+            phaseEvent = null;
+        }
+        currentPhase = null;
+    }
+
+    /**
+     * 计时构造一个bean，耗时包含构造器参数的解析(可能触发依赖的延迟创建)
+     */
+    public <T> T timeConstruction(String beanName, Class<?> beanClass, Supplier<T> construction) {
+        if (finished) {
+            return construction.get();
+        }
+        long allocatedBefore = currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int[] depth = nesting.get();
+        T instance;
+        depth[0]++;
+        try {
+            instance = construction.get();
+        } finally {
+            depth[0]--;
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = recordAllocation(allocatedBefore, depth[0] == 0);
+        timing(beanName, beanClass).addConstruction(nanos, allocated);
+        return instance;
+    }
+
+    /**
+     * 计时给一个bean做依赖注入
+     */
+    public void timeInjection(String beanName, Class<?> beanClass, Runnable injection) {
+        if (finished) {
+            injection.run();
+            return;
+        }
+        long allocatedBefore = currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int[] depth = nesting.get();
+        depth[0]++;
+        try {
+            injection.run();
+        } finally {
+            depth[0]--;
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = recordAllocation(allocatedBefore, depth[0] == 0);
+        timing(beanName, beanClass).addInjection(nanos, allocated);
+    }
+
+    public void addRoute(String path, String handler) {
+        Map<String, Object> route = new LinkedHashMap<>();
+        route.put("path", path);
+        route.put("handler", handler);
+        routes.add(route);
+    }
+
+    /**
+     * 记录一条警告，出现在摘要的计数和报告的 warnings 里
+     */
+    public void addWarning(String message) {
+        warnings.add(message);
+    }
+
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    public void setClassCounts(int scanned, int loaded) {
+        this.classesScanned = scanned;
+        this.classesLoaded = loaded;
+    }
+
+    /**
+     * 启动结束，之后不再记录
+     */
+    public void finish() {
+        endPhase();
+        totalNanos = System.nanoTime() - startNanos;
+        finished = true;
+    }
+
+    public List<PhaseTiming> getPhases() {
+        return Collections.unmodifiableList(phases);
+    }
+
+    public Collection<BeanTiming> getBeans() {
+        return Collections.unmodifiableCollection(beans.values());
+    }
+
+    /**
+     * 按构造+注入的总耗时从慢到快排序
+     */
+    public List<BeanTiming> getSlowestBeans(int limit) {
+        List<BeanTiming> sorted = new ArrayList<>(beans.values());
+        sorted.sort(Comparator.comparingLong(BeanTiming::getTotalNanos).reversed());
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    /**
+     * 一行摘要，打印在启动日志里
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder("startup: classes scanned=").append(classesScanned)
+                .append(", classes loaded=").append(classesLoaded)
+                .append(", beans=").append(beans.size())
+                .append(", routes=").append(routes.size());
+        if (!warnings.isEmpty()) {
+            sb.append(", warnings=").append(warnings.size());
+        }
+        for (PhaseTiming phase : phases) {
+            sb.append(", ").append(phase.getName()).append('=').append(toMillis(phase.getNanos())).append("ms");
+        }
+        sb.append(", total=").append(toMillis(totalNanos)).append("ms");
+        List<BeanTiming> slowest = getSlowestBeans(1);
+        if (!slowest.isEmpty()) {
+            sb.append(", slowest bean=").append(slowest.get(0).getName())
+                    .append('(').append(toMillis(slowest.get(0).getTotalNanos())).append("ms)");
+        }
+        return sb.toString();
+    }
+
+    public Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalMillis", toMillis(totalNanos));
+        report.put("classesScanned", classesScanned);
+        report.put("classesLoaded", classesLoaded);
+        report.put("allocationTracked", ALLOCATION_SUPPORTED);
+
+        List<Map<String, Object>> phaseList = new ArrayList<>();
+        for (PhaseTiming phase : phases) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", phase.getName());
+            item.put("millis", toMillis(phase.getNanos()));
+            item.put("allocatedBytes", phase.getAllocatedBytes());
+            phaseList.add(item);
+        }
+        report.put("phases", phaseList);
+
+        List<Map<String, Object>> slowest = new ArrayList<>();
+        for (BeanTiming bean : getSlowestBeans(slowestBeans)) {
+            slowest.add(bean.toReport());
+        }
+        report.put("slowestBeans", slowest);
+
+        List<Map<String, Object>> beanList = new ArrayList<>();
+        for (BeanTiming bean : new TreeMap<>(beans).values()) {
+            beanList.add(bean.toReport());
+        }
+        report.put("beans", beanList);
+        report.put("routes", routes);
+        report.put("warnings", new ArrayList<>(warnings));
+        return report;
+    }
+
+    public String toJson() {
+        return Json.toJson(toReport(), JsonFormat.nice());
+    }
+
+    /**
+     * 写 JSON 报告，先写临时文件再改名，CI 不会读到写了一半的文件
+     */
+    public void writeReport(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            writer.write(toJson());
+        }
+        if (!tmp.renameTo(file)) {
+            //目标已存在时部分平台 rename 失败，删掉重试
+            if (!file.delete() || !tmp.renameTo(file)) {
+                throw new IOException("Cannot write " + file);
+            }
+        }
+    }
+
+    private BeanTiming timing(String beanName, Class<?> beanClass) {
+        return beans.computeIfAbsent(beanName, k -> new BeanTiming(beanName, beanClass.getName()));
+    }
+
+    private long recordAllocation(long allocatedBefore, boolean outermost) {
+        if (!ALLOCATION_SUPPORTED) {
+            return -1;
+        }
+        long allocated = currentThreadAllocatedBytes() - allocatedBefore;
+        if (outermost && Thread.currentThread() != owner) {
+            offThreadAllocated.add(allocated);
+        }
+        return allocated;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000d) / 100d;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (!ALLOCATION_SUPPORTED) {
+            return 0;
+        }
+        return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static boolean isAllocationSupported() {
+        try {
+            return THREADS instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()
+                    && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 一个阶段的耗时和分配量
+     */
+    public static final class PhaseTiming {
+        private final String name;
+        private final long nanos;
+        private final long allocatedBytes;
+
+        private PhaseTiming(String name, long nanos, long allocatedBytes) {
+            this.name = name;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    /**
+     * 一个bean的构造和注入耗时；prototype 等多次创建的bean累加
+     */
+    public static final class BeanTiming {
+        private final String name;
+        private final String type;
+        private long constructNanos;
+        private long injectNanos;
+        private long allocatedBytes;
+
+        private BeanTiming(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        private synchronized void addConstruction(long nanos, long allocated) {
+            constructNanos += nanos;
+            allocatedBytes = allocated < 0 ? -1 : allocatedBytes + allocated;
+        }
+
+        private synchronized void addInjection(long nanos, long allocated) {
+            injectNanos += nanos;
+            allocatedBytes = allocated < 0 ? -1 : allocatedBytes + allocated;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public synchronized long getConstructNanos() {
+            return constructNanos;
+        }
+
+        public synchronized long getInjectNanos() {
+            return injectNanos;
+        }
+
+        public synchronized long getTotalNanos() {
+            return constructNanos + injectNanos;
+        }
+
+        public synchronized long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        private synchronized Map<String, Object> toReport() {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", name);
+            item.put("type", type);
+            item.put("constructMillis", toMillis(constructNanos));
+            item.put("injectMillis", toMillis(injectNanos));
+            item.put("allocatedBytes", allocatedBytes);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tianhy.mvcframework.view;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Desc: controller 方法返回的视图名(或视图)和模型
+ * <p>
+ * 返回值处理链把它交给 ViewResolver 找到 View，再把模型渲染到响应。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class ModelAndView {
+
+    private final String viewName;
+
+    private final View view;
+
+    private final Map<String, Object> model = new LinkedHashMap<>();
+
+    public ModelAndView(String viewName) {
+        this.viewName = viewName;
+        this.view = null;
+    }
+
+    public ModelAndView(String viewName, Map<String, ?> model) {
+        this(viewName);
+        if (model != null) {
+            this.model.putAll(model);
+        }
+    }
+
+    /**
+     * 直接指定视图，不经过 ViewResolver
+     */
+    public ModelAndView(View view) {
+        this.viewName = null;
+        this.view = view;
+    }
+
+    public ModelAndView addObject(String name, Object value) {
+        model.put(name, value);
+        return this;
+    }
+
+    public String getViewName() {
+        return viewName;
+    }
+
+    public View getView() {
+        return view;
+    }
+
+    public Map<String, Object> getModel() {
+        return model;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelAndView{view=" + (view != null ? view : viewName) + ", model=" + model.keySet() + "}";
+    }
+}
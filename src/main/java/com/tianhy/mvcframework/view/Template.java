@@ -0,0 +1,318 @@
+package com.tianhy.mvcframework.view;
+
+import com.tianhy.mvcframework.returnvalue.Utf8StreamWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.stream.BaseStream;
+
+/**
+ * @Desc: 编译好的模板
+ * <p>
+ * 语法：
+ * <ul>
+ * <li>${a.b.c} 输出值并做 HTML 转义，${a.b?no_esc} 原样输出；值为 null 时什么也不输出</li>
+ * <li>&lt;#list items as item&gt;...&lt;/#list&gt; 循环，循环体内可以用 item_index(从0开始) 和 item_has_next</li>
+ * <li>&lt;#if a.b&gt;...&lt;#else&gt;...&lt;/#if&gt;，条件前可以加 !；null、false、空字符串、空集合/Map/数组为假，其余为真</li>
+ * <li>&lt;#-- 注释 --&gt; 编译时丢弃</li>
+ * </ul>
+ * 源码只解析一次，编译成节点数组：静态文本在编译时就编码成 UTF-8 字节，渲染时直接拷贝进输出缓冲区；
+ * 循环变量编译成局部变量数组的下标，属性访问带内联缓存。渲染只遍历节点数组，边渲染边写到输出流，不拼接整页字符串。
+ * 编译后不再修改，可以被多个线程并发渲染。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public final class Template {
+
+    private static final Object[] NO_LOCALS = new Object[0];
+
+    private final String name;
+
+    private final Node[] nodes;
+
+    /**
+     * 局部变量(循环变量)的个数
+     */
+    private final int localCount;
+
+    Template(String name, Node[] nodes, int localCount) {
+        this.name = name;
+        this.nodes = nodes;
+        this.localCount = localCount;
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param name 模板名，用于错误信息
+     * @throws TemplateException 语法错误
+     */
+    public static Template compile(String name, String source) {
+        return new TemplateParser(name, source).parse();
+    }
+
+    /**
+     * 渲染到 out，不 flush
+     *
+     * @throws TemplateException 属性不存在或取值失败
+     */
+    public void render(Map<String, ?> model, Utf8StreamWriter out) throws IOException {
+        Object[] locals = localCount == 0 ? NO_LOCALS : new Object[localCount];
+        renderNodes(nodes, model != null ? model : Collections.<String, Object>emptyMap(), locals, out);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "Template{" + name + "}";
+    }
+
+    private static void renderNodes(Node[] nodes, Map<String, ?> model, Object[] locals, Utf8StreamWriter out) throws IOException {
+        for (Node node : nodes) {
+            node.render(model, locals, out);
+        }
+    }
+
+    /**
+     * 按 HTML 转义写出，没有需要转义的字符时整段写出
+     */
+    static void writeEscaped(String s, Writer out) throws IOException {
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            String entity;
+            switch (s.charAt(i)) {
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '"':
+                    entity = "&quot;";
+                    break;
+                case '\'':
+                    entity = "&#39;";
+                    break;
+                default:
+                    continue;
+            }
+            if (i > start) {
+                out.write(s, start, i - start);
+            }
+            out.write(entity);
+            start = i + 1;
+        }
+        if (start < s.length()) {
+            out.write(s, start, s.length() - start);
+        }
+    }
+
+    static void writeInteger(long value, Writer out) throws IOException {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                out.write(Long.toString(value));
+                return;
+            }
+            out.write('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.write((int) ('0' + value / divisor));
+            value %= divisor;
+        }
+    }
+
+    static boolean isTrue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() > 0;
+        }
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+        if (value instanceof Map) {
+            return !((Map<?, ?>) value).isEmpty();
+        }
+        if (value.getClass().isArray()) {
+            return Array.getLength(value) > 0;
+        }
+        return true;
+    }
+
+    abstract static class Node {
+        abstract void render(Map<String, ?> model, Object[] locals, Utf8StreamWriter out) throws IOException;
+    }
+
+    /**
+     * 静态文本，编译时编码好
+     */
+    static final class TextNode extends Node {
+        private final byte[] bytes;
+
+        TextNode(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        void render(Map<String, ?> model, Object[] locals, Utf8StreamWriter out) throws IOException {
+            out.writeUtf8(bytes);
+        }
+    }
+
+    /**
+     * ${expression}
+     */
+    static final class ValueNode extends Node {
+        private final TemplateExpression expression;
+        private final boolean escape;
+
+        ValueNode(TemplateExpression expression, boolean escape) {
+            this.expression = expression;
+            this.escape = escape;
+        }
+
+        @Override
+        void render(Map<String, ?> model, Object[] locals, Utf8StreamWriter out) throws IOException {
+            Object value = expression.evaluate(model, locals);
+            if (value == null) {
+                return;
+            }
+            //数字和布尔不需要转义，整数逐位写出，不生成字符串
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                writeInteger(((Number) value).longValue(), out);
+            } else if (value instanceof Number || value instanceof Boolean) {
+                out.write(value.toString());
+            } else if (escape) {
+                writeEscaped(value.toString(), out);
+            } else {
+                out.write(value.toString());
+            }
+        }
+    }
+
+    /**
+     * &lt;#if&gt;
+     */
+    static final class IfNode extends Node {
+        private final TemplateExpression condition;
+        private final boolean negate;
+        private final Node[] then;
+        private final Node[] otherwise;
+
+        IfNode(TemplateExpression condition, boolean negate, Node[] then, Node[] otherwise) {
+            this.condition = condition;
+            this.negate = negate;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        void render(Map<String, ?> model, Object[] locals, Utf8StreamWriter out) throws IOException {
+            if (isTrue(condition.evaluate(model, locals)) != negate) {
+                renderNodes(then, model, locals, out);
+            } else {
+                renderNodes(otherwise, model, locals, out);
+            }
+        }
+    }
+
+    /**
+     * &lt;#list&gt;，循环变量占 slot，item_index 占 slot+1，item_has_next 占 slot+2；后两个只有模板中用到时才赋值
+     */
+    static final class ListNode extends Node {
+        private final TemplateExpression source;
+        private final String templateName;
+        private final int slot;
+        private final boolean indexUsed;
+        private final boolean hasNextUsed;
+        private final Node[] body;
+
+        ListNode(TemplateExpression source, String templateName, int slot, boolean indexUsed, boolean hasNextUsed, Node[] body) {
+            this.source = source;
+            this.templateName = templateName;
+            this.slot = slot;
+            this.indexUsed = indexUsed;
+            this.hasNextUsed = hasNextUsed;
+            this.body = body;
+        }
+
+        @Override
+        void render(Map<String, ?> model, Object[] locals, Utf8StreamWriter out) throws IOException {
+            Object value = source.evaluate(model, locals);
+            if (value == null) {
+                return;
+            }
+            //可随机访问的 List 和数组按下标遍历，不创建迭代器
+            if (value instanceof List && value instanceof RandomAccess) {
+                List<?> list = (List<?>) value;
+                int size = list.size();
+                for (int i = 0; i < size; i++) {
+                    renderItem(list.get(i), i, i < size - 1, model, locals, out);
+                }
+            } else if (value instanceof Object[]) {
+                Object[] array = (Object[]) value;
+                for (int i = 0; i < array.length; i++) {
+                    renderItem(array[i], i, i < array.length - 1, model, locals, out);
+                }
+            } else if (value.getClass().isArray()) {
+                int length = Array.getLength(value);
+                for (int i = 0; i < length; i++) {
+                    renderItem(Array.get(value, i), i, i < length - 1, model, locals, out);
+                }
+            } else {
+                Iterator<?> iterator = iterator(value);
+                int i = 0;
+                while (iterator.hasNext()) {
+                    Object item = iterator.next();
+                    renderItem(item, i++, iterator.hasNext(), model, locals, out);
+                }
+            }
+            locals[slot] = null;
+        }
+
+        private void renderItem(Object item, int index, boolean hasNext, Map<String, ?> model, Object[] locals,
+                                Utf8StreamWriter out) throws IOException {
+            locals[slot] = item;
+            if (indexUsed) {
+                locals[slot + 1] = index;
+            }
+            if (hasNextUsed) {
+                locals[slot + 2] = hasNext;
+            }
+            renderNodes(body, model, locals, out);
+        }
+
+        private Iterator<?> iterator(Object value) {
+            if (value instanceof Iterable) {
+                return ((Iterable<?>) value).iterator();
+            }
+            if (value instanceof Map) {
+                return ((Map<?, ?>) value).entrySet().iterator();
+            }
+            if (value instanceof Iterator) {
+                return (Iterator<?>) value;
+            }
+            if (value instanceof BaseStream) {
+                return ((BaseStream<?, ?>) value).iterator();
+            }
+            throw new TemplateException("'" + source + "' is not iterable (" + value.getClass().getName() + ") in " + templateName);
+        }
+    }
+}
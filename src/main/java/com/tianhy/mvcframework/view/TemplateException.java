@@ -0,0 +1,19 @@
+package com.tianhy.mvcframework.view;
+
+/**
+ * @Desc: 模板语法错误(编译时)或取值失败(渲染时)，消息中带模板名和行号
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class TemplateException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TemplateException(String message) {
+        super(message);
+    }
+
+    public TemplateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,181 @@
+package com.tianhy.mvcframework.view;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * @Desc: 模板中的取值表达式 a.b.c
+ * <p>
+ * 编译时就确定根变量是循环变量(按槽位从局部变量数组取)还是模型中的变量(按名字从 Map 取)；
+ * 每一级属性带一个单态内联缓存：记住上一次目标对象的类和解析出的取值方式(Map.get / getter / public 字段)，
+ * 类不变时直接调用，不再反射查找。中间某一级为 null 时整个表达式为 null。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+final class TemplateExpression {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String text;
+
+    private final String templateName;
+
+    private final int line;
+
+    /**
+     * 根变量在局部变量数组中的位置，-1 表示从模型取
+     */
+    private final int slot;
+
+    private final String rootName;
+
+    private final Property[] properties;
+
+    TemplateExpression(String text, String templateName, int line, int slot, String rootName, String[] path) {
+        this.text = text;
+        this.templateName = templateName;
+        this.line = line;
+        this.slot = slot;
+        this.rootName = rootName;
+        this.properties = new Property[path.length];
+        for (int i = 0; i < path.length; i++) {
+            properties[i] = new Property(path[i]);
+        }
+    }
+
+    Object evaluate(Map<String, ?> model, Object[] locals) {
+        Object value = slot >= 0 ? locals[slot] : model.get(rootName);
+        for (Property property : properties) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                value = property.get(value);
+            } catch (TemplateException e) {
+                throw new TemplateException(e.getMessage() + " in '" + text + "' at " + templateName + ":" + line, e.getCause());
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * 一级属性访问，带单态内联缓存
+     */
+    private static final class Property {
+
+        private final String name;
+
+        /**
+         * 上一次解析的结果，整体替换，读的时候只读一次
+         */
+        private volatile Accessor cache;
+
+        private Property(String name) {
+            this.name = name;
+        }
+
+        Object get(Object target) {
+            Accessor accessor = cache;
+            if (accessor == null || accessor.type != target.getClass()) {
+                accessor = resolve(target.getClass());
+                cache = accessor;
+            }
+            if (accessor.handle == null) {
+                return ((Map<?, ?>) target).get(name);
+            }
+            try {
+                return (Object) accessor.handle.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new TemplateException("Failed to read property '" + name + "' of " + target.getClass().getName(), e);
+            }
+        }
+
+        private Accessor resolve(Class<?> type) {
+            if (Map.class.isAssignableFrom(type)) {
+                return new Accessor(type, null);
+            }
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            try {
+                for (String methodName : new String[]{"get" + suffix, "is" + suffix, name}) {
+                    Method method = findMethod(type, methodName);
+                    if (method != null) {
+                        //非public类(比如 JDK 内部的集合实现)上的方法，改用public父类型上的声明
+                        if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                            Method declared = findPublicDeclaration(type, methodName);
+                            if (declared != null) {
+                                method = declared;
+                            } else {
+                                method.trySetAccessible();
+                            }
+                        }
+                        return new Accessor(type, MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE));
+                    }
+                }
+                Field field = type.getField(name);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    field.trySetAccessible();
+                    return new Accessor(type, MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE));
+                }
+            } catch (NoSuchFieldException ignored) {
+                //下面统一报错
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new TemplateException("Can not access property '" + name + "' of " + type.getName(), e);
+            }
+            throw new TemplateException("No property '" + name + "' on " + type.getName());
+        }
+
+        private static Method findPublicDeclaration(Class<?> type, String methodName) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                if (Modifier.isPublic(c.getModifiers())) {
+                    Method method = findMethod(c, methodName);
+                    if (method != null && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                        return method;
+                    }
+                }
+                for (Class<?> i : c.getInterfaces()) {
+                    Method method = findPublicDeclaration(i, methodName);
+                    if (method != null) {
+                        return method;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static Method findMethod(Class<?> type, String methodName) {
+            try {
+                Method method = type.getMethod(methodName);
+                return method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers()) ? method : null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Accessor {
+
+        private final Class<?> type;
+
+        /**
+         * null 表示目标是 Map，按名字 get
+         */
+        private final MethodHandle handle;
+
+        private Accessor(Class<?> type, MethodHandle handle) {
+            this.type = type;
+            this.handle = handle;
+        }
+    }
+}
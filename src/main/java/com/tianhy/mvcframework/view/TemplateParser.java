@@ -0,0 +1,235 @@
+package com.tianhy.mvcframework.view;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @Desc: 把模板源码编译成 Template 的节点数组
+ * <p>
+ * 单遍扫描，遇到 ${、&lt;#、&lt;/# 时切出指令，其余字符累积成静态文本；
+ * 循环变量按作用域分配局部变量下标，表达式的根变量在编译时就确定从局部变量还是模型中取。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+final class TemplateParser {
+
+    private static final Pattern LIST = Pattern.compile("list\\s+(\\S+)\\s+as\\s+([A-Za-z_][A-Za-z0-9_]*)");
+
+    private static final Pattern IF = Pattern.compile("if\\s+(!?)\\s*(\\S+)");
+
+    private static final Pattern PATH = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
+    private static final String NO_ESCAPE = "?no_esc";
+
+    private final String name;
+
+    private final String source;
+
+    private int pos;
+
+    /**
+     * 行号按扫描位置单调推进
+     */
+    private int line = 1;
+
+    private int linePos;
+
+    /**
+     * 当前可见的循环变量名和对应的下标，按作用域嵌套入栈
+     */
+    private final List<String> scopeNames = new ArrayList<>();
+
+    private final List<Integer> scopeSlots = new ArrayList<>();
+
+    /**
+     * 模板中实际引用过的局部变量
+     */
+    private final BitSet usedSlots = new BitSet();
+
+    private int localCount;
+
+    /**
+     * parseNodes 停下来的原因：遇到了 &lt;#else&gt;
+     */
+    private boolean stoppedAtElse;
+
+    TemplateParser(String name, String source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    Template parse() {
+        Template.Node[] nodes = parseNodes(null, 0);
+        return new Template(name, nodes, localCount);
+    }
+
+    /**
+     * 解析到 block 对应的结束标签(或 &lt;#else&gt;)为止
+     *
+     * @param block     "list" / "if" / "else"，顶层为 null
+     * @param blockLine 开始标签所在行
+     */
+    private Template.Node[] parseNodes(String block, int blockLine) {
+        List<Template.Node> nodes = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        while (pos < source.length()) {
+            if (source.startsWith("${", pos)) {
+                flushText(text, nodes);
+                nodes.add(parseValue());
+            } else if (source.startsWith("<#--", pos)) {
+                int end = source.indexOf("-->", pos);
+                if (end < 0) {
+                    throw error("Unclosed comment", lineAt(pos));
+                }
+                pos = end + 3;
+            } else if (source.startsWith("<#", pos)) {
+                int tagLine = lineAt(pos);
+                String tag = readTag(2);
+                flushText(text, nodes);
+                if (tag.startsWith("list")) {
+                    nodes.add(parseList(tag, tagLine));
+                } else if (tag.startsWith("if")) {
+                    nodes.add(parseIf(tag, tagLine));
+                } else if (tag.equals("else")) {
+                    if (!"if".equals(block)) {
+                        throw error("Unexpected <#else>", tagLine);
+                    }
+                    stoppedAtElse = true;
+                    return nodes.toArray(new Template.Node[0]);
+                } else {
+                    throw error("Unknown directive <#" + tag + ">", tagLine);
+                }
+            } else if (source.startsWith("</#", pos)) {
+                int tagLine = lineAt(pos);
+                String tag = readTag(3);
+                String expected = "else".equals(block) ? "if" : block;
+                if (!tag.equals(expected)) {
+                    throw error("Unexpected </#" + tag + ">", tagLine);
+                }
+                flushText(text, nodes);
+                stoppedAtElse = false;
+                return nodes.toArray(new Template.Node[0]);
+            } else {
+                text.append(source.charAt(pos++));
+            }
+        }
+        if (block != null) {
+            throw error("Unclosed <#" + ("else".equals(block) ? "if" : block) + ">", blockLine);
+        }
+        flushText(text, nodes);
+        return nodes.toArray(new Template.Node[0]);
+    }
+
+    private Template.Node parseValue() {
+        int valueLine = lineAt(pos);
+        int end = source.indexOf('}', pos);
+        if (end < 0) {
+            throw error("Unclosed ${", valueLine);
+        }
+        String content = source.substring(pos + 2, end).trim();
+        pos = end + 1;
+        boolean escape = true;
+        if (content.endsWith(NO_ESCAPE)) {
+            escape = false;
+            content = content.substring(0, content.length() - NO_ESCAPE.length()).trim();
+        }
+        return new Template.ValueNode(expression(content, valueLine), escape);
+    }
+
+    private Template.Node parseList(String tag, int tagLine) {
+        Matcher matcher = LIST.matcher(tag);
+        if (!matcher.matches()) {
+            throw error("Expected <#list items as item> but found <#" + tag + ">", tagLine);
+        }
+        TemplateExpression source = expression(matcher.group(1), tagLine);
+        String item = matcher.group(2);
+        int slot = localCount;
+        localCount += 3;
+        push(item, slot);
+        push(item + "_index", slot + 1);
+        push(item + "_has_next", slot + 2);
+        Template.Node[] body = parseNodes("list", tagLine);
+        pop(3);
+        return new Template.ListNode(source, name, slot, usedSlots.get(slot + 1), usedSlots.get(slot + 2), body);
+    }
+
+    private Template.Node parseIf(String tag, int tagLine) {
+        Matcher matcher = IF.matcher(tag);
+        if (!matcher.matches()) {
+            throw error("Expected <#if condition> but found <#" + tag + ">", tagLine);
+        }
+        TemplateExpression condition = expression(matcher.group(2), tagLine);
+        Template.Node[] then = parseNodes("if", tagLine);
+        Template.Node[] otherwise = new Template.Node[0];
+        if (stoppedAtElse) {
+            otherwise = parseNodes("else", tagLine);
+        }
+        return new Template.IfNode(condition, !matcher.group(1).isEmpty(), then, otherwise);
+    }
+
+    private TemplateExpression expression(String text, int exprLine) {
+        if (!PATH.matcher(text).matches()) {
+            throw error("Invalid expression '" + text + "'", exprLine);
+        }
+        String[] parts = text.split("\\.");
+        String root = parts[0];
+        String[] path = new String[parts.length - 1];
+        System.arraycopy(parts, 1, path, 0, path.length);
+        int slot = -1;
+        for (int i = scopeNames.size() - 1; i >= 0; i--) {
+            if (scopeNames.get(i).equals(root)) {
+                slot = scopeSlots.get(i);
+                usedSlots.set(slot);
+                break;
+            }
+        }
+        return new TemplateExpression(text, name, exprLine, slot, root, path);
+    }
+
+    private String readTag(int prefixLength) {
+        int end = source.indexOf('>', pos);
+        if (end < 0) {
+            throw error("Unclosed directive", lineAt(pos));
+        }
+        String tag = source.substring(pos + prefixLength, end).trim();
+        pos = end + 1;
+        return tag;
+    }
+
+    private void flushText(StringBuilder text, List<Template.Node> nodes) {
+        if (text.length() > 0) {
+            nodes.add(new Template.TextNode(text.toString().getBytes(StandardCharsets.UTF_8)));
+            text.setLength(0);
+        }
+    }
+
+    private void push(String variable, int slot) {
+        scopeNames.add(variable);
+        scopeSlots.add(slot);
+    }
+
+    private void pop(int count) {
+        for (int i = 0; i < count; i++) {
+            scopeNames.remove(scopeNames.size() - 1);
+            scopeSlots.remove(scopeSlots.size() - 1);
+        }
+    }
+
+    private int lineAt(int position) {
+        while (linePos < position) {
+            if (source.charAt(linePos) == '\n') {
+                line++;
+            }
+            linePos++;
+        }
+        return line;
+    }
+
+    private TemplateException error(String message, int errorLine) {
+        return new TemplateException(message + " at " + name + ":" + errorLine);
+    }
+}
@@ -0,0 +1,53 @@
+package com.tianhy.mvcframework.view;
+
+import com.tianhy.mvcframework.returnvalue.Utf8StreamWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * @Desc: 用编译好的 Template 渲染的视图
+ * <p>
+ * 通过线程复用的 Utf8StreamWriter 边渲染边写到 ServletOutputStream，缓冲区满了就刷出，不生成整页字符串。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class TemplateView implements View {
+
+    private final Template template;
+
+    private final String contentType;
+
+    public TemplateView(Template template, String contentType) {
+        this.template = template;
+        this.contentType = contentType;
+    }
+
+    public Template getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void render(Map<String, ?> model, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType(contentType);
+        Utf8StreamWriter writer = Utf8StreamWriter.forOutput(resp.getOutputStream());
+        try {
+            template.render(model, writer);
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TemplateView{" + template.getName() + "}";
+    }
+}
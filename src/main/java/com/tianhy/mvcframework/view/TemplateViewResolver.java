@@ -0,0 +1,199 @@
+package com.tianhy.mvcframework.view;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Desc: 从 classpath 加载模板的 ViewResolver
+ * <p>
+ * 视图名 xxx 对应 classpath 下的 {view.prefix}xxx{view.suffix}，每个模板只读取、编译一次，之后按视图名缓存(找不到的也缓存)。
+ * view.reload=true(开发模式)时，对文件系统上的模板每隔 view.reload.interval 毫秒最多检查一次修改时间，变了就重新编译；
+ * jar 包里的模板不会变，不检查。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public class TemplateViewResolver implements ViewResolver {
+
+    /**
+     * 配置项：模板在 classpath 中的目录，默认 templates/
+     */
+    public static final String PREFIX_PROPERTY = "view.prefix";
+
+    /**
+     * 配置项：模板文件后缀，默认 .html
+     */
+    public static final String SUFFIX_PROPERTY = "view.suffix";
+
+    /**
+     * 配置项：响应的 Content-Type，默认 text/html;charset=UTF-8；模板总是按 UTF-8 编码输出，
+     * 没有写 charset 时补上 charset=UTF-8，写了其他 charset 时启动报错
+     */
+    public static final String CONTENT_TYPE_PROPERTY = "view.contentType";
+
+    /**
+     * 配置项：模板修改后是否重新编译，默认 false
+     */
+    public static final String RELOAD_PROPERTY = "view.reload";
+
+    /**
+     * 配置项：重新编译时检查修改时间的最小间隔(毫秒)，默认 1000
+     */
+    public static final String RELOAD_INTERVAL_PROPERTY = "view.reload.interval";
+
+    private final String prefix;
+
+    private final String suffix;
+
+    private final String contentType;
+
+    private final boolean reload;
+
+    private final long reloadIntervalNanos;
+
+    private final ClassLoader classLoader;
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public TemplateViewResolver(String prefix, String suffix, String contentType, boolean reload, long reloadIntervalMillis,
+                                ClassLoader classLoader) {
+        this.prefix = prefix.startsWith("/") ? prefix.substring(1) : prefix;
+        this.suffix = suffix;
+        this.contentType = utf8ContentType(contentType);
+        this.reload = reload;
+        this.reloadIntervalNanos = reloadIntervalMillis * 1_000_000L;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 按配置创建
+     */
+    public static TemplateViewResolver create(Properties config, ClassLoader classLoader) {
+        return new TemplateViewResolver(config.getProperty(PREFIX_PROPERTY, "templates/"),
+                config.getProperty(SUFFIX_PROPERTY, ".html"),
+                config.getProperty(CONTENT_TYPE_PROPERTY, "text/html;charset=UTF-8"),
+                Boolean.parseBoolean(config.getProperty(RELOAD_PROPERTY, "false")),
+                Long.parseLong(config.getProperty(RELOAD_INTERVAL_PROPERTY, "1000")),
+                classLoader);
+    }
+
+    /**
+     * TemplateView 按 UTF-8 编码输出，Content-Type 声明的 charset 必须一致
+     */
+    private static String utf8ContentType(String contentType) {
+        for (String param : contentType.split(";")) {
+            param = param.trim();
+            if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+                String charset = param.substring(8).trim().replace("\"", "");
+                if (!"UTF-8".equalsIgnoreCase(charset) && !"UTF8".equalsIgnoreCase(charset)) {
+                    throw new IllegalArgumentException("Unsupported charset in " + CONTENT_TYPE_PROPERTY + ": " + contentType
+                            + ", templates are always rendered as UTF-8");
+                }
+                return contentType;
+            }
+        }
+        return contentType + ";charset=UTF-8";
+    }
+
+    @Override
+    public View resolveViewName(String viewName) throws IOException {
+        Entry entry = cache.get(viewName);
+        if (entry == null || reload && entry.isStale(reloadIntervalNanos)) {
+            //并发时可能重复编译同一个模板，结果相同，后放入的覆盖先放入的
+            entry = load(viewName);
+            cache.put(viewName, entry);
+        }
+        return entry.view;
+    }
+
+    /**
+     * 清空缓存，下次请求重新编译
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private Entry load(String viewName) throws IOException {
+        if (viewName.contains("..")) {
+            throw new IllegalArgumentException("Invalid view name: " + viewName);
+        }
+        String path = prefix + (viewName.startsWith("/") ? viewName.substring(1) : viewName) + suffix;
+        URL url = classLoader.getResource(path);
+        if (url == null) {
+            return new Entry(null, null, 0);
+        }
+        File file = toFile(url);
+        long lastModified = file != null ? file.lastModified() : 0;
+        String source;
+        try (InputStream in = url.openStream()) {
+            source = read(in);
+        }
+        TemplateView view = new TemplateView(Template.compile(path, source), contentType);
+        return new Entry(view, file, lastModified);
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static final class Entry {
+
+        /**
+         * 模板不存在时为 null
+         */
+        final TemplateView view;
+
+        /**
+         * 文件系统上的模板，jar 包中的为 null
+         */
+        final File file;
+
+        final long lastModified;
+
+        volatile long checkedAt = System.nanoTime();
+
+        Entry(TemplateView view, File file, long lastModified) {
+            this.view = view;
+            this.file = file;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * 距上次检查超过间隔时才去读修改时间；不存在的模板同样按间隔重新查找
+         */
+        boolean isStale(long intervalNanos) {
+            long now = System.nanoTime();
+            if (now - checkedAt < intervalNanos) {
+                return false;
+            }
+            checkedAt = now;
+            if (view == null) {
+                return true;
+            }
+            return file != null && file.lastModified() != lastModified;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tianhy.mvcframework.view;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * @Desc: 把模型渲染到响应
+ * <p>
+ * 实现需要线程安全，同一个 View 会被多个请求并发渲染。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface View {
+
+    String getContentType();
+
+    void render(Map<String, ?> model, HttpServletRequest req, HttpServletResponse resp) throws IOException;
+}
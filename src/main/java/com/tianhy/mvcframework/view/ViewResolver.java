@@ -0,0 +1,16 @@
+package com.tianhy.mvcframework.view;
+
+/**
+ * @Desc: 按视图名找 View
+ * <p>
+ * 用户可以实现这个接口并加上 @MyService，容器中的解析器排在内置的 TemplateViewResolver 之前，按顺序询问，第一个非 null 的结果生效。
+ * @Author: thy
+ * @CreateTime: 2026/10/18
+ **/
+public interface ViewResolver {
+
+    /**
+     * @return 视图，不认识这个视图名时返回 null
+     */
+    View resolveViewName(String viewName) throws Exception;
+}